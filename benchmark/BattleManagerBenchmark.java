@@ -0,0 +1,44 @@
+package benchmark;
+
+import gameobject.Enemy;
+import gameobject.PartyMember;
+import gameobject.Player;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.*;
+import rpgscene.battleutil.BattleManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures BattleManager.tick with rosters of different sizes on both sides. No one dies, so each tick checks every
+ * player and every enemy.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BattleManagerBenchmark {
+
+    @Param({"4", "100", "1000", "10000"})
+    public int rosterSize; // the number of players and the number of enemies
+
+    private BattleManager battleManager;
+
+    @Setup
+    public void setup() {
+        PartyMember players = null;
+        PartyMember enemies = null;
+        for (int i = 0; i < rosterSize; i++) {
+            players = new Player(0, 0, 20, 20, 0, 0, Color.BLUE, "player" + i, Integer.MAX_VALUE, 1, players);
+            enemies = new Enemy(0, 0, 20, 20, 0, 0, Color.RED, "enemy" + i, Integer.MAX_VALUE, 1, enemies);
+        }
+        battleManager = new BattleManager((Player) players, (Enemy) enemies);
+    }
+
+    @Benchmark
+    public BattleManager tick() {
+        battleManager.tick();
+        return battleManager;
+    }
+}
@@ -0,0 +1,29 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark in this package with JMH and saves the results as JSON so they can be compared between
+ * releases. Needs JMH (jmh-core and jmh-generator-annprocess) and JavaFX on the classpath, with annotation processing
+ * turned on when compiling; benchmark/pom.xml builds all of that into benchmarks.jar with this class as its main class.
+ * Benchmarks that start the JavaFX toolkit need a display.
+ * Usage: BenchmarkRunner [result file] [benchmark name pattern]
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = (args.length > 0) ? args[0] : "jmh-result.json";
+        String pattern = (args.length > 1) ? args[1] : BenchmarkRunner.class.getPackage().getName() + "\\..*Benchmark";
+
+        new Runner(new OptionsBuilder()
+                .include(pattern)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build()).run();
+    }
+}
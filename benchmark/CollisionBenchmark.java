@@ -0,0 +1,88 @@
+package benchmark;
+
+import gameobject.PillarMap;
+import gameobject.Player;
+import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.*;
+import rpgscene.PlayScene;
+import rpgscene.RPGScene;
+import rpgscene.SceneState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures PlayScene.tick, which moves the player and checks them against the solid tiles of the map and against the
+ * enemies, on maps of different sizes. The player walks down and to the right, then back up and to the left, turning
+ * every TURN_TICKS ticks, so they slide along the tiles they hit and stop against the enemy in their way. The arrow
+ * keys are pressed through the scene's own key handlers. The checks only look at the cells around the player's path,
+ * so the time should not grow with the map.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+
+    private static final int TURN_TICKS = 200; // how many ticks the player walks before turning around
+
+    @Param({"16", "64", "256", "1024"})
+    public int mapSize; // the number of rows and columns in the map
+
+    private PlayScene playScene;
+    private int ticks; // how many ticks have run since the player last turned around
+    private boolean forward; // true while the player walks down and to the right
+
+    @Setup
+    public void setup() {
+        FxToolkit.start();
+        Canvas canvas = new Canvas(1000, 750);
+        Player player = new Player(500, 750 / 2, 20, 20, 0, 0, Color.BLACK, "Buster", 200, 20);
+        playScene = new PlayScene(new Group(canvas), canvas, Color.GREEN, SceneState.PLAY, player,
+                PillarMap.layout(mapSize));
+        // the player only moves while the state is PLAY
+        RPGScene.getStateMachine().update();
+        ticks = 0;
+        forward = true;
+        press(KeyCode.RIGHT, true);
+        press(KeyCode.DOWN, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        playScene.shutdown();
+    }
+
+    @Benchmark
+    public PlayScene tick() {
+        if (++ticks == TURN_TICKS) {
+            ticks = 0;
+            forward = !forward;
+            press(KeyCode.RIGHT, forward);
+            press(KeyCode.DOWN, forward);
+            press(KeyCode.LEFT, !forward);
+            press(KeyCode.UP, !forward);
+        }
+        playScene.tick();
+        return playScene;
+    }
+
+    /**
+     * Presses or releases a key through the scene's key handlers, the same way the window would.
+     * @param code the key
+     * @param pressed true to press the key, false to release it
+     */
+    private void press(KeyCode code, boolean pressed) {
+        KeyEvent event = new KeyEvent(pressed ? KeyEvent.KEY_PRESSED : KeyEvent.KEY_RELEASED, "", "", code, false,
+                false, false, false);
+        if (pressed) {
+            playScene.getOnKeyPressed().handle(event);
+        } else {
+            playScene.getOnKeyReleased().handle(event);
+        }
+    }
+}
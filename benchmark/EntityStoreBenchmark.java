@@ -0,0 +1,64 @@
+package benchmark;
+
+import gameobject.CollisionGrid;
+import gameobject.EntityStore;
+import gameobject.Map;
+import gameobject.PillarMap;
+import gameobject.Sweep;
+import javafx.scene.Group;
+import javafx.scene.shape.Rectangle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one step of an entity store with different numbers of entities wandering a 256 x 256 map, half of them
+ * sliding along solid tiles, and syncing every entity's sprite after they all moved.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntityStoreBenchmark {
+
+    private static final int MAP_SIZE = 256;
+
+    @Param({"10000", "100000"})
+    public int entityCount;
+
+    private CollisionGrid grid;
+    private Sweep sweep;
+    private EntityStore store;
+
+    @Setup
+    public void setup() {
+        FxToolkit.start();
+        Map map = PillarMap.create(MAP_SIZE, new Group());
+        grid = new CollisionGrid(map);
+        sweep = new Sweep();
+        store = new EntityStore();
+        Random random = new Random(42);
+        for (int i = 0; i < entityCount; i++) {
+            int flags = (i % 2 == 0) ? EntityStore.COLLIDES_WITH_TILES : 0;
+            int id = PillarMap.addWanderer(store, map, grid, random, flags);
+            store.setSprite(id, new Rectangle(0, 0, PillarMap.ENTITY_SIZE, PillarMap.ENTITY_SIZE));
+        }
+    }
+
+    @Benchmark
+    public EntityStore step() {
+        store.step(grid, sweep);
+        store.clearMoved();
+        return store;
+    }
+
+    @Benchmark
+    public EntityStore stepAndSync() {
+        store.step(grid, sweep);
+        store.clearMoved();
+        store.sync();
+        return store;
+    }
+}
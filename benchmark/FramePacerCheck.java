@@ -0,0 +1,62 @@
+package benchmark;
+
+import rpgmain.FramePacer;
+
+import java.util.Random;
+
+/**
+ * Checks that a FramePacer's frame rate cap holds on displays with different refresh rates. Each case feeds the pacer
+ * a minute of display pulses, with some jitter in when they arrive, and counts the frames it lets through. The rate
+ * must be within 1% of the cap, or of the refresh rate when that is lower. Exits with an IllegalStateException naming
+ * the first case that fails.
+ * Usage: FramePacerCheck
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class FramePacerCheck {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int SECONDS = 60; // how long each case runs for in simulated time
+    private static final double ALLOWED_ERROR = 0.01; // how far off the cap the rate may be, as a fraction
+
+    public static void main(String[] args) {
+        // cap, refresh rate, jitter in nanoseconds
+        check(60, 144, 0);
+        check(60, 60, 200_000);
+        check(60, 120, 200_000);
+        check(144, 240, 100_000);
+        check(30, 75, 200_000);
+        check(60, 59.94, 0);
+        check(0, 144, 200_000);
+        System.out.println("every frame rate cap holds");
+    }
+
+    /**
+     * Runs one case and prints the rate it reached.
+     * @param cap the frame rate cap, or 0 for no cap
+     * @param refreshRate how many pulses the display sends per second
+     * @param jitterNanos the most a pulse can come early or late
+     * @throws IllegalStateException if the rate is not within ALLOWED_ERROR of what is expected
+     */
+    private static void check(int cap, double refreshRate, long jitterNanos) {
+        FramePacer pacer = new FramePacer(4);
+        pacer.setFrameRateCap(cap);
+        Random random = new Random(42);
+        double pulseNanos = NANOS_PER_SECOND / refreshRate;
+        long pulses = (long) (SECONDS * refreshRate);
+        long frames = 0;
+        for (long i = 1; i <= pulses; i++) {
+            long jitter = (jitterNanos > 0) ? (long) ((random.nextDouble() * 2 - 1) * jitterNanos) : 0;
+            if (pacer.shouldRunFrame((long) (i * pulseNanos) + jitter)) {
+                frames++;
+            }
+        }
+        double rate = (double) frames / SECONDS;
+        double expected = (cap > 0) ? Math.min(cap, refreshRate) : refreshRate;
+        System.out.println("cap " + cap + " on " + refreshRate + " Hz: " + rate + " fps");
+        if (Math.abs(rate - expected) > expected * ALLOWED_ERROR) {
+            throw new IllegalStateException("cap " + cap + " on a " + refreshRate + " Hz display ran at " + rate
+                    + " fps instead of " + expected);
+        }
+    }
+}
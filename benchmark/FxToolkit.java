@@ -0,0 +1,36 @@
+package benchmark;
+
+import javafx.application.Platform;
+
+/**
+ * Starts the JavaFX toolkit once per benchmark JVM. Some benchmarks make Scenes, which need the toolkit running even
+ * though nothing is shown. The toolkit needs a display, so those benchmarks cannot run on a machine without one unless
+ * it is given a virtual display, for example with xvfb-run.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+final class FxToolkit {
+
+    private static boolean started = false;
+
+    private FxToolkit() {
+    }
+
+    /**
+     * Starts the JavaFX toolkit if it has not been started yet.
+     * @throws IllegalStateException if there is no display to start the toolkit on
+     */
+    static synchronized void start() {
+        if (!started) {
+            try {
+                Platform.startup(() -> { });
+            } catch (IllegalStateException e) {
+                // the toolkit was already running
+            } catch (UnsupportedOperationException e) {
+                throw new IllegalStateException("this benchmark needs the JavaFX toolkit, which needs a display; "
+                        + "run it under a virtual display such as xvfb-run", e);
+            }
+            started = true;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import rpgmain.ParallelTickable;
+import rpgmain.Renderable;
+import rpgmain.RenderHandler;
+import rpgmain.TickHandler;
+import rpgmain.TickPhase;
+import rpgmain.Tickable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures TickHandler.handle and RenderHandler.handle with different numbers of registered objects. The objects only
+ * count how many times they were called, so the results show the cost of the handlers themselves. With the parallel
+ * kind, the objects are ParallelTickables, so they are ticked on the ForkJoinPool, and each one passes a change to
+ * TickHandler.commit every COMMIT_INTERVAL ticks, so the cost of the commit queue is measured too.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandlerBenchmark {
+
+    private static final int COMMIT_INTERVAL = 16; // how many ticks a parallel counter waits between commits
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int objectCount; // the number of objects registered in each handler
+
+    @Param({"serial", "parallel"})
+    public String kind; // whether the objects are ticked one after another or as ParallelTickables
+
+    private int[] tickHandles;
+    private int[] renderHandles;
+    private Counter[] counters;
+
+    /**
+     * A Tickable and Renderable that counts how many times it is called.
+     */
+    private static class Counter implements Tickable, Renderable {
+        protected long count;
+
+        @Override
+        public void tick() {
+            count++;
+        }
+
+        @Override
+        public void render() {
+            count++;
+        }
+    }
+
+    /**
+     * A Counter that is ticked on the ForkJoinPool. Every COMMIT_INTERVAL ticks it commits a change that counts the
+     * commits on the game loop's thread.
+     */
+    private static class ParallelCounter extends Counter implements ParallelTickable {
+        private long commits;
+        private final Runnable commit = () -> commits++; // made once and committed again every time
+
+        @Override
+        public void tick() {
+            if (++count % COMMIT_INTERVAL == 0) {
+                TickHandler.getInstance().commit(commit);
+            }
+        }
+    }
+
+    @Setup
+    public void setup() {
+        tickHandles = new int[objectCount];
+        renderHandles = new int[objectCount];
+        counters = new Counter[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            counters[i] = kind.equals("parallel") ? new ParallelCounter() : new Counter();
+            tickHandles[i] = TickHandler.getInstance().addObject(TickPhase.POST_UPDATE, counters[i]);
+            renderHandles[i] = RenderHandler.getInstance().addObject(counters[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        // the handlers are singletons, so leave them empty for the next trial
+        for (int i = 0; i < objectCount; i++) {
+            TickHandler.getInstance().removeObject(tickHandles[i]);
+            RenderHandler.getInstance().removeObject(renderHandles[i]);
+        }
+    }
+
+    @Benchmark
+    public void tickHandler() {
+        TickHandler.getInstance().handle();
+    }
+
+    @Benchmark
+    public void renderHandler() {
+        RenderHandler.getInstance().handle();
+    }
+}
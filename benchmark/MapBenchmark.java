@@ -0,0 +1,92 @@
+package benchmark;
+
+import gameobject.Camera;
+import gameobject.CanvasMapRenderer;
+import gameobject.Map;
+import gameobject.PillarMap;
+import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Map.tick, Map.render and CanvasMapRenderer.render on square maps of different sizes. Each tick moves the
+ * player one step, back and forth across the map, so the range of visible tiles changes. Before each render the view
+ * jumps a whole screen to the right or back to the left, so every render replaces the visible tiles instead of finding
+ * nothing to do. On maps less than two screens wide the jump is half the map instead, so the player stays on it.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapBenchmark {
+
+    private static final int TILE_SIZE = 20; // pixels per tile, the same as one player step
+    private static final int SCREEN_WIDTH = 1000; // the width of the canvas and how far the view jumps
+    private static final int SCREEN_HEIGHT = 750; // the height of the canvas
+
+    @Param({"16", "64", "256", "1024"})
+    public int mapSize; // the number of rows and columns in the map
+
+    private Map map;
+    private CanvasMapRenderer canvasRenderer;
+    private Camera camera; // the canvas renderer's view, moved along with the jumps
+    private Group worldNode; // what the camera is applied to after a canvas render, as PlayScene does
+    private boolean jumped; // true while the view is a screen to the right of where it started
+    private double playerX;
+    private double playerY;
+    private int direction;
+
+    @Setup
+    public void setup() {
+        FxToolkit.start();
+        map = new Map(mapSize * TILE_SIZE, mapSize * TILE_SIZE, new Group(), PillarMap.layout(mapSize));
+        playerX = TILE_SIZE;
+        playerY = mapSize * TILE_SIZE / 2.0;
+        direction = TILE_SIZE;
+        camera = new Camera();
+        worldNode = new Group();
+        canvasRenderer = new CanvasMapRenderer(map, new Canvas(SCREEN_WIDTH, SCREEN_HEIGHT), camera);
+        jumped = false;
+    }
+
+    @Benchmark
+    public Map tick() {
+        // walk right until the far edge, then walk back
+        if (playerX + direction <= 0 || playerX + direction >= mapSize * TILE_SIZE) {
+            direction = -direction;
+        }
+        playerX += direction;
+        map.tick(playerX, playerY);
+        return map;
+    }
+
+    @Benchmark
+    public Map render() {
+        jump();
+        map.render();
+        return map;
+    }
+
+    @Benchmark
+    public Map renderCanvas() {
+        jump();
+        canvasRenderer.render();
+        camera.apply(worldNode);
+        return map;
+    }
+
+    /**
+     * Moves the player and the camera a whole screen to the right of a quarter of the way across the map, or back if
+     * they moved right last time, and ticks the map so its visible range follows.
+     */
+    private void jump() {
+        double mapWidth = mapSize * TILE_SIZE;
+        double distance = Math.min(SCREEN_WIDTH, mapWidth / 2);
+        jumped = !jumped;
+        camera.move(jumped ? distance : -distance, 0);
+        map.tick(mapWidth / 4 + (jumped ? distance : 0), mapWidth / 2);
+    }
+}
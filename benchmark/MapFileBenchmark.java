@@ -0,0 +1,56 @@
+package benchmark;
+
+import gameobject.MappedMapFile;
+import gameobject.PillarMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening a binary map file and looking up tiles in it, on square maps of different sizes. The largest map
+ * is about 130 MB on disk.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapFileBenchmark {
+
+    @Param({"1024", "4096", "8192"})
+    public int mapSize; // the number of rows and columns in the map
+
+    private Path path;
+    private MappedMapFile mapFile;
+    private int row;
+    private int col;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        path = Files.createTempFile("map", ".rpm");
+        MappedMapFile.write(path, PillarMap.source(mapSize));
+        mapFile = MappedMapFile.open(path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        mapFile = null;
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public MappedMapFile open() throws IOException {
+        return MappedMapFile.open(path);
+    }
+
+    @Benchmark
+    public char lookup() {
+        // step through the map diagonally so lookups land in different chunks
+        row = (row + 17) % mapSize;
+        col = (col + 31) % mapSize;
+        return mapFile.getCell(row, col);
+    }
+}
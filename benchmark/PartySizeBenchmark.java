@@ -0,0 +1,37 @@
+package benchmark;
+
+import gameobject.PartyMember;
+import gameobject.Player;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures PartyMember.getPartySize on parties of different sizes.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PartySizeBenchmark {
+
+    @Param({"4", "100", "10000"})
+    public int partySize; // the number of members in the party
+
+    private PartyMember leader;
+
+    @Setup
+    public void setup() {
+        leader = null;
+        for (int i = 0; i < partySize; i++) {
+            leader = new Player(0, 0, 20, 20, 0, 0, Color.BLUE, "player" + i, 200, 20, leader);
+        }
+    }
+
+    @Benchmark
+    public int getPartySize() {
+        return leader.getPartySize();
+    }
+}
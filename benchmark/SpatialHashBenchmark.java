@@ -0,0 +1,72 @@
+package benchmark;
+
+import gameobject.SpatialHash;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the index of enemies with different numbers of entities spread over a 20000 x 20000 world: finding what
+ * overlaps a player-sized box, finding what is within a radius, and moving one entity.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpatialHashBenchmark {
+
+    private static final double WORLD_SIZE = 20000;
+    private static final double ENTITY_SIZE = 20;
+
+    @Param({"100", "1000", "10000"})
+    public int entityCount;
+
+    private SpatialHash<Integer> index;
+    private double[] x;
+    private double[] y;
+    private ArrayList<Integer> out;
+    private Random random;
+    private int next;
+
+    @Setup
+    public void setup() {
+        index = new SpatialHash<>(128);
+        x = new double[entityCount];
+        y = new double[entityCount];
+        random = new Random(42);
+        for (int i = 0; i < entityCount; i++) {
+            x[i] = random.nextDouble() * WORLD_SIZE;
+            y[i] = random.nextDouble() * WORLD_SIZE;
+            index.insert(i, x[i], y[i], ENTITY_SIZE, ENTITY_SIZE);
+        }
+        out = new ArrayList<>();
+    }
+
+    @Benchmark
+    public int queryBox() {
+        out.clear();
+        index.queryBox(random.nextDouble() * WORLD_SIZE, random.nextDouble() * WORLD_SIZE, ENTITY_SIZE, ENTITY_SIZE,
+                out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int queryRadius() {
+        out.clear();
+        index.queryRadius(random.nextDouble() * WORLD_SIZE, random.nextDouble() * WORLD_SIZE, 300, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public SpatialHash<Integer> update() {
+        // nudge one entity, crossing into a new cell now and then
+        int handle = next;
+        next = (next + 1) % entityCount;
+        x[handle] = (x[handle] + 7) % WORLD_SIZE;
+        index.update(handle, x[handle], y[handle], ENTITY_SIZE, ENTITY_SIZE);
+        return index;
+    }
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import gameobject.CollisionGrid;
+import gameobject.Map;
+import gameobject.PillarMap;
+import gameobject.Sweep;
+import javafx.scene.Group;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sliding a batch of boxes along the solid tiles of a 256 x 256 map, each moving about three tiles in one
+ * tick, which is how far a dash or a projectile could go. One Sweep is reused for the whole batch.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SweepBenchmark {
+
+    private static final int MAP_SIZE = 256;
+    private static final double BOX_SIZE = 20;
+    private static final double SPEED = 3 * PillarMap.TILE_SIZE;
+
+    @Param({"1000", "10000"})
+    public int entityCount;
+
+    private CollisionGrid grid;
+    private Sweep sweep;
+    private double[] x;
+    private double[] y;
+    private double[] changeInX;
+    private double[] changeInY;
+
+    @Setup
+    public void setup() {
+        FxToolkit.start();
+        Map map = PillarMap.create(MAP_SIZE, new Group());
+        grid = new CollisionGrid(map);
+        sweep = new Sweep();
+        x = new double[entityCount];
+        y = new double[entityCount];
+        changeInX = new double[entityCount];
+        changeInY = new double[entityCount];
+        Random random = new Random(42);
+        for (int i = 0; i < entityCount; i++) {
+            // start every box somewhere open
+            do {
+                x[i] = random.nextDouble() * MAP_SIZE * PillarMap.TILE_SIZE;
+                y[i] = random.nextDouble() * MAP_SIZE * PillarMap.TILE_SIZE;
+            } while (grid.overlapsSolid(x[i], y[i], BOX_SIZE, BOX_SIZE));
+            double angle = random.nextDouble() * 2 * Math.PI;
+            changeInX[i] = Math.cos(angle) * SPEED;
+            changeInY[i] = Math.sin(angle) * SPEED;
+        }
+    }
+
+    @Benchmark
+    public int slide() {
+        // the boxes are not moved, so every call sweeps the same batch
+        int hits = 0;
+        for (int i = 0; i < entityCount; i++) {
+            if (grid.slide(x[i], y[i], BOX_SIZE, BOX_SIZE, changeInX[i], changeInY[i], sweep)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
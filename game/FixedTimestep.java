@@ -0,0 +1,80 @@
+package rpgmain;
+
+/**
+ * Represents a clock that turns the variable time between frames into a whole number of fixed-length simulation
+ * steps. Leftover time is carried over in an accumulator so that the simulation runs at the same rate no matter how
+ * often frames are drawn.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class FixedTimestep {
+
+    private final long stepNanos; // the length of one simulation step in nanoseconds
+    private final int maxStepsPerFrame; // the most steps that can be run in one frame when catching up
+    private long accumulator; // time that has passed but has not been simulated yet
+    private long lastTime; // the timestamp of the previous frame, or -1 if there has not been one
+
+    public FixedTimestep(int stepsPerSecond, int maxStepsPerFrame) {
+        if (stepsPerSecond <= 0 || maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("steps per second and max steps per frame must be positive");
+        }
+        this.stepNanos = 1_000_000_000L / stepsPerSecond;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        accumulator = 0;
+        lastTime = -1;
+    }
+
+    /**
+     * Adds the time since the last frame to the accumulator and returns how many fixed steps should be run now.
+     * If more than maxStepsPerFrame steps are owed (for example after a long stall), the extra time is thrown away
+     * so that the game slows down instead of trying to catch up forever.
+     * @param now the current time in nanoseconds
+     * @return the number of simulation steps to run this frame
+     */
+    public int advance(long now) {
+        return advance(now, maxStepsPerFrame);
+    }
+
+    /**
+     * Adds the time since the last frame to the accumulator and returns how many fixed steps should be run now, but
+     * no more than maxSteps. Any time beyond that is thrown away.
+     * @param now the current time in nanoseconds
+     * @param maxSteps the most steps to run this frame
+     * @return the number of simulation steps to run this frame
+     */
+    public int advance(long now, int maxSteps) {
+        // the first frame only starts the clock
+        if (lastTime < 0) {
+            lastTime = now;
+            return 0;
+        }
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int steps = (int) Math.min(accumulator / stepNanos, maxSteps);
+        accumulator -= steps * stepNanos;
+
+        // drop any time that could not be simulated within the cap
+        if (accumulator >= stepNanos) {
+            accumulator %= stepNanos;
+        }
+        return steps;
+    }
+
+    /**
+     * Returns how far the simulation is between the last step and the next one, from 0 up to (but not including) 1.
+     * Renderables can use this to interpolate between the previous and current simulation state.
+     * @return how far the simulation is between the last step and the next one
+     */
+    public double getAlpha() {
+        return (double) accumulator / stepNanos;
+    }
+
+    /**
+     * Returns the length of one simulation step in nanoseconds.
+     * @return the length of one simulation step in nanoseconds.
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+}
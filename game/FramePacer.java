@@ -0,0 +1,102 @@
+package rpgmain;
+
+/**
+ * Represents a policy that decides which frames of the game loop actually run. Frames can be capped at a maximum rate.
+ * When the current scene does not animate or the window is not focused, the pacer drops to a low idle rate, and
+ * returns to the full rate as soon as the user does something.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class FramePacer {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long WAKE_NANOS = 2 * NANOS_PER_SECOND; // how long input keeps the game at full rate
+    // how early a frame may come and still run, so a cap equal to the display's refresh rate does not drop frames
+    private static final long TOLERANCE_NANOS = 500_000;
+
+    private long minFrameNanos; // the shortest time between frames at full rate, or 0 for no cap
+    private long idleFrameNanos; // the shortest time between frames when idle
+    private boolean staticScene; // true if the current scene does not animate
+    private boolean focused; // true if the window is focused
+    private long awakeUntil; // the time until which the pacer stays at full rate because of input
+    private long lastFrame; // the time the last frame that ran was due, or -1 if the next frame should run right away
+
+    public FramePacer(int idleFramesPerSecond) {
+        setFrameRateCap(0);
+        idleFrameNanos = NANOS_PER_SECOND / idleFramesPerSecond;
+        staticScene = false;
+        focused = true;
+        awakeUntil = 0;
+        lastFrame = -1;
+    }
+
+    /**
+     * Returns true if a frame should run now. Frames are due one interval after the last one was due rather than one
+     * interval after it ran, so frames that run a little late on a display whose refresh rate is not a multiple of the
+     * cap do not slow the average rate down. A frame up to TOLERANCE_NANOS early still runs. If the loop falls more
+     * than one interval behind, the schedule starts again from now instead of running a burst of frames to catch up.
+     * @param now the current time in nanoseconds
+     * @return true if the frame should run, false if it should be skipped
+     */
+    public boolean shouldRunFrame(long now) {
+        long interval = isIdle(now) ? idleFrameNanos : minFrameNanos;
+        if (lastFrame >= 0 && now - lastFrame < interval - Math.min(TOLERANCE_NANOS, interval / 2)) {
+            return false;
+        }
+        if (lastFrame < 0 || now - lastFrame >= 2 * interval) {
+            lastFrame = now;
+        } else {
+            lastFrame += interval;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the pacer is at its idle rate: the scene does not animate or the window is not focused, and
+     * there has been no input recently.
+     * @param now the current time in nanoseconds
+     * @return true if the pacer is idle, false otherwise
+     */
+    public boolean isIdle(long now) {
+        return (staticScene || !focused) && now - awakeUntil >= 0;
+    }
+
+    /**
+     * Stays at the full rate for a short time. Called whenever the user presses a key or a mouse button. If the pacer
+     * was idle, the next frame runs right away; otherwise the frame rate cap still applies.
+     * @param now the current time in nanoseconds
+     */
+    public void wake(long now) {
+        if (isIdle(now)) {
+            lastFrame = -1;
+        }
+        awakeUntil = now + WAKE_NANOS;
+    }
+
+    /**
+     * Caps the full frame rate.
+     * @param framesPerSecond the most frames per second to run, or 0 for no cap
+     */
+    public void setFrameRateCap(int framesPerSecond) {
+        if (framesPerSecond < 0) {
+            throw new IllegalArgumentException("frame rate cap must not be negative");
+        }
+        minFrameNanos = (framesPerSecond > 0) ? NANOS_PER_SECOND / framesPerSecond : 0;
+    }
+
+    /**
+     * Tells the pacer whether the current scene animates.
+     * @param staticScene true if the current scene does not animate
+     */
+    public void setStaticScene(boolean staticScene) {
+        this.staticScene = staticScene;
+    }
+
+    /**
+     * Tells the pacer whether the window is focused.
+     * @param focused true if the window is focused
+     */
+    public void setFocused(boolean focused) {
+        this.focused = focused;
+    }
+}
@@ -0,0 +1,238 @@
+package rpgmain;
+
+import java.util.Arrays;
+
+/**
+ * A singleton class that records how long each part of a frame takes. Each Section and each TickPhase gets a
+ * LatencyHistogram, and every object in the TickHandler and RenderHandler gets an entry in an ObjectTimings. The
+ * TickHandler has one ObjectTimings for each of its lanes, since a TickHandler handle is a lane and a handle within it.
+ * The time spent in each Section during the last few hundred frames is kept in a ring buffer.
+ *
+ * Profiling can be turned on and off at any time. While it is off, begin returns 0 and the end methods return right
+ * away, so the cost is one field read per call. While it is on, nothing is allocated.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class FrameProfiler {
+
+    /**
+     * Represents a part of the frame that is timed.
+     */
+    public enum Section {
+        FRAME, // one whole frame of the game loop
+        TICK, // one call to TickHandler.handle
+        RENDER, // one call to RenderHandler.handle
+        SET_SCENE // one call to Stage.setScene
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+    private static final int RING_SIZE = 512; // how many frames of history to keep
+
+    private volatile boolean enabled; // true if timings are being recorded
+
+    private LatencyHistogram[] sectionHistograms; // one histogram per Section
+    private LatencyHistogram[] phaseHistograms; // one histogram per TickPhase
+    private ObjectTimings[] tickObjects; // timings for each object in the TickHandler, one ObjectTimings per lane
+    private ObjectTimings renderObjects; // timings for each object in the RenderHandler
+
+    private long[][] ring; // for each Section, the time spent in it during each of the last RING_SIZE frames
+    private long[] currentFrame; // for each Section, the time spent in it so far this frame
+    private int ringCursor; // the index in ring that the next frame is written to
+    private long framesRecorded; // how many frames have been written to ring
+
+    private FrameProfiler() {
+        enabled = false;
+        sectionHistograms = new LatencyHistogram[SECTIONS.length];
+        for (int i = 0; i < SECTIONS.length; i++) {
+            sectionHistograms[i] = new LatencyHistogram();
+        }
+        phaseHistograms = new LatencyHistogram[TickPhase.values().length];
+        for (int i = 0; i < phaseHistograms.length; i++) {
+            phaseHistograms[i] = new LatencyHistogram();
+        }
+        tickObjects = new ObjectTimings[TickHandler.LANES];
+        for (int i = 0; i < tickObjects.length; i++) {
+            tickObjects[i] = new ObjectTimings();
+        }
+        renderObjects = new ObjectTimings();
+        ring = new long[SECTIONS.length][RING_SIZE];
+        currentFrame = new long[SECTIONS.length];
+    }
+
+    /**
+     * An inner class holding a single instance of FrameProfiler. Used for getting an instance of FrameProfiler.
+     */
+    private static class FrameProfilerHolder {
+        private static final FrameProfiler INSTANCE = new FrameProfiler();
+    }
+
+    /**
+     * Returns an instance of a FrameProfiler
+     * @return an instance of a FrameProfiler
+     */
+    public static FrameProfiler getInstance() {
+        return FrameProfilerHolder.INSTANCE;
+    }
+
+    /**
+     * Turns recording on or off.
+     * @param enabled true to record timings, false to stop
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns true if timings are being recorded.
+     * @return true if timings are being recorded, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the start time of something to be timed, or 0 if profiling is off.
+     * @return the current time in nanoseconds, or 0 if profiling is off
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since start for a Section. Does nothing if start is 0.
+     * @param section the section that was timed
+     * @param start the value begin returned
+     */
+    public void end(Section section, long start) {
+        if (start != 0) {
+            long nanos = System.nanoTime() - start;
+            sectionHistograms[section.ordinal()].record(nanos);
+            currentFrame[section.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Records the time since start for a TickPhase. Does nothing if start is 0.
+     * @param phase the phase that was timed
+     * @param start the value begin returned
+     */
+    public void endPhase(TickPhase phase, long start) {
+        if (start != 0) {
+            phaseHistograms[phase.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the time since start for an object in the TickHandler. Does nothing if start is 0.
+     * @param lane the lane the object is in
+     * @param handle the object's handle within its lane
+     * @param start the value begin returned
+     */
+    public void endTickObject(int lane, int handle, long start) {
+        if (start != 0) {
+            tickObjects[lane].record(handle, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the time since start for an object in the RenderHandler. Does nothing if start is 0.
+     * @param handle the object's RenderHandler handle
+     * @param start the value begin returned
+     */
+    public void endRenderObject(int handle, long start) {
+        if (start != 0) {
+            renderObjects.record(handle, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Writes the time spent in each Section this frame to the ring buffer and starts a new frame. Does nothing if
+     * profiling is off.
+     */
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < SECTIONS.length; i++) {
+            ring[i][ringCursor] = currentFrame[i];
+            currentFrame[i] = 0;
+        }
+        ringCursor = (ringCursor + 1) % RING_SIZE;
+        framesRecorded++;
+    }
+
+    /**
+     * Copies the time spent in a Section during the most recent frames into dest, oldest first.
+     * @param section the section
+     * @param dest where to copy the times to
+     * @return the number of frames copied, which is at most dest.length and at most 512
+     */
+    public int copyRecentFrames(Section section, long[] dest) {
+        int available = (int) Math.min(framesRecorded, RING_SIZE);
+        int frames = Math.min(available, dest.length);
+        long[] times = ring[section.ordinal()];
+        for (int i = 0; i < frames; i++) {
+            dest[i] = times[Math.floorMod(ringCursor - frames + i, RING_SIZE)];
+        }
+        return frames;
+    }
+
+    /**
+     * Returns the histogram for a Section.
+     * @param section the section
+     * @return the section's histogram
+     */
+    public LatencyHistogram getHistogram(Section section) {
+        return sectionHistograms[section.ordinal()];
+    }
+
+    /**
+     * Returns the histogram for a TickPhase.
+     * @param phase the phase
+     * @return the phase's histogram
+     */
+    public LatencyHistogram getHistogram(TickPhase phase) {
+        return phaseHistograms[phase.ordinal()];
+    }
+
+    /**
+     * Returns the timings of the objects in one lane of the TickHandler, indexed by handle within the lane. The lane
+     * and the handle within it of an object come from its TickHandler handle through TickHandler.laneOf and
+     * TickHandler.indexOf.
+     * @param lane the lane
+     * @return the timings of the objects in the lane
+     */
+    public ObjectTimings getTickObjects(int lane) {
+        return tickObjects[lane];
+    }
+
+    /**
+     * Returns the timings of the objects in the RenderHandler, indexed by RenderHandler handle.
+     * @return the timings of the objects in the RenderHandler
+     */
+    public ObjectTimings getRenderObjects() {
+        return renderObjects;
+    }
+
+    /**
+     * Forgets everything recorded.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : sectionHistograms) {
+            histogram.reset();
+        }
+        for (LatencyHistogram histogram : phaseHistograms) {
+            histogram.reset();
+        }
+        for (ObjectTimings timings : tickObjects) {
+            timings.reset();
+        }
+        renderObjects.reset();
+        for (long[] times : ring) {
+            Arrays.fill(times, 0);
+        }
+        Arrays.fill(currentFrame, 0);
+        ringCursor = 0;
+        framesRecorded = 0;
+    }
+}
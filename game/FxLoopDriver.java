@@ -0,0 +1,38 @@
+package rpgmain;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * A LoopDriver that runs one frame of a GameLoop on every JavaFX pulse.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class FxLoopDriver implements LoopDriver {
+
+    private AnimationTimer timer; // the timer that is called on every JavaFX pulse
+
+    /**
+     * Creates an AnimationTimer that runs a frame of the loop whenever JavaFX draws the window, and starts it.
+     * @param loop the loop to drive
+     */
+    @Override
+    public void start(GameLoop loop) {
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                loop.frame(now);
+            }
+        };
+        timer.start();
+    }
+
+    /**
+     * Stops the AnimationTimer.
+     */
+    @Override
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+}
@@ -1,16 +1,18 @@
 package rpgmain;
 
-import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 import rpgscene.*;
 
 /**
- * Represents an application that runs the actual game and initializes necessary resources.
+ * Represents an application that runs the actual game and initializes necessary resources. The game itself is the
+ * Tickable and Renderable that a GameLoop updates and draws; the window only decides when frames happen.
  * @Author Tony Comanzo ICSI 311
  * Version 1.0
  */
-public class Game extends Application {
+public class Game extends Application implements Tickable, Renderable {
 
     private SceneManager sceneManager; // manages the game's scenes
     private Stage stage; // represents the window the user plays in
@@ -18,82 +20,145 @@ public class Game extends Application {
     // handlers that make sure objects get updated and drawn in the game loop
     private TickHandler tickHandler;
     private RenderHandler renderHandler;
+    private int battleSceneHandle = -1; // the TickHandler handle of the current BattleScene, or -1 if there isn't one
+
+    private static final int TICKS_PER_SECOND = 60; // how many times per second the game is updated
+    private static final int MAX_TICKS_PER_FRAME = 5; // the most updates that can happen in one frame when catching up
+    private static final int IDLE_FRAMES_PER_SECOND = 4; // how often the game updates on static scenes or unfocused
+    private LoopDriver driver; // decides when frames of the game loop happen
+    private FramePacer pacer; // lowers the frame rate while the game is idle
 
     public static void main(String[] args) {
         launch(args);
     }
 
     public void start(Stage stage) {
+        // record frame timings from the start if asked to on the command line
+        FrameProfiler.getInstance().setEnabled(getParameters().getUnnamed().contains("--profile"));
+
         sceneManager = SceneManager.getInstance();
         makeTickHandler();
         makeRenderHandler();
         this.stage = stage;
+        makePacer();
+        makeTransitions();
+        stage.setScene(sceneManager.getCurrentScene()); // render the current scene in the window
         stage.show(); // show the game window
 
-        // create a game loop that will call Game's tick and render methods until the user exits
-        AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                tick();
-                render();
-            }
-        };
+        // create a game loop that updates the game at a fixed rate and draws it once per frame until the user exits.
+        // The number of updates depends on how much time has passed, not on how often frames are drawn.
+        GameLoop loop = new GameLoop(this, this, new FixedTimestep(TICKS_PER_SECOND, MAX_TICKS_PER_FRAME));
+        loop.setPacer(pacer);
+        driver = new FxLoopDriver();
+        driver.start(loop); // start the game loop on every JavaFX pulse
+
+    }
 
-        timer.start(); // start the game loop
+    /**
+     * Stops the background work of the scenes when the window is closed.
+     */
+    @Override
+    public void stop() {
+        sceneManager.getPlayScene().shutdown();
+    }
 
+    /**
+     * Invokes the TickHandler to update every item in its collection. Scene changes happen inside the SceneManager's
+     * tick, and the hooks registered in makeTransitions react to them, so nothing here depends on the state.
+     */
+    @Override
+    public void tick() {
+        tickHandler.handle(); // tick every object in the TickHandler's collection
     }
 
     /**
-     * Gets the current scene from the scene manager and the current state of all scenes from the current state.
-     * Checks for certain states and updates the tick handler accordingly. Then updates the stage with the current
-     * scene and invokes the TickHandler to update every item in its collection.
+     * Registers hooks on the scene state machine. When a battle starts the BattleScene is added to the TickHandler,
+     * and when it ends in any way it is removed. Once the transitions of an update are done, the window shows the new
+     * current scene if it is a different scene, so states that are only passed through never swap the window's scene.
      */
-    private void tick() {
-        RPGScene currentScene = sceneManager.getCurrentScene();
-        String state = currentScene.getState();
-
-        // if the state is a battle, make a new BattleScene (if there isn't one) and add it to the TickHandler
-        if (state.equals("battle")) {
-            BattleScene temp = sceneManager.getBattleScene();
-            if (temp == null) {
-                temp = sceneManager.makeBattleScene();
-                tickHandler.addObject(temp.getId(), temp);
+    private void makeTransitions() {
+        SceneStateMachine stateMachine = RPGScene.getStateMachine();
+        // the SceneManager's own hook has made the BattleScene by the time this one runs
+        stateMachine.onEnter(SceneState.BATTLE, () ->
+                battleSceneHandle = tickHandler.addObject(TickPhase.BATTLE_RESOLUTION, sceneManager.getBattleScene()));
+        stateMachine.onExit(SceneState.BATTLE, this::removeBattleScene);
+        stateMachine.addSettleListener((from, to) -> {
+            if (stage.getScene() != sceneManager.getCurrentScene()) {
+                FrameProfiler profiler = FrameProfiler.getInstance();
+                long start = profiler.begin();
+                stage.setScene(sceneManager.getCurrentScene());
+                profiler.end(FrameProfiler.Section.SET_SCENE, start);
             }
-        }
-        // if the battle is over, remove the BattleScene from the TickHandler
-        else if (state.equals("battle over")) {
-            BattleScene temp = sceneManager.getBattleScene();
-            tickHandler.removeObject(temp.getId());
-        }
-        // if the user won, remove the BattleScene from the TickHandler
-        else if (state.equals("battle won")) {
-            BattleScene temp = sceneManager.getBattleScene();
-            tickHandler.removeObject(temp.getId());
-        }
-        // if the user lost, remove the BattleScene from the TickHandler
-        else if (state.equals("player dead")) {
-            BattleScene temp = sceneManager.getBattleScene();
-            tickHandler.removeObject(temp.getId());
-        }
+        });
+        // slow down on scenes that do not animate
+        stateMachine.addSettleListener((from, to) -> pacer.setStaticScene(to.isStatic()));
+    }
 
-        stage.setScene(currentScene); // render the current scene in the window
+    /**
+     * Makes the FramePacer. Caps the frame rate if "--fps=N" was given on the command line with N a positive whole
+     * number, or 0 for no cap; any other value is reported and ignored. Drops to the idle rate on static scenes and
+     * when the window loses focus, and returns to full rate whenever the user presses a key or a mouse button.
+     */
+    private void makePacer() {
+        pacer = new FramePacer(IDLE_FRAMES_PER_SECOND);
+        String fps = getParameters().getNamed().get("fps");
+        if (fps != null) {
+            try {
+                pacer.setFrameRateCap(Integer.parseInt(fps));
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException is an IllegalArgumentException too
+                System.err.println("Ignoring --fps=" + fps + ": expected a whole number of frames per second, "
+                        + "0 or more");
+            }
+        }
+        pacer.setStaticScene(sceneManager.getCurrentScene().getState().isStatic());
+        stage.focusedProperty().addListener((observable, wasFocused, isFocused) -> {
+            pacer.setFocused(isFocused);
+            // keys released while another window has focus are never seen, so stop treating any key as held
+            if (!isFocused) {
+                sceneManager.getPlayScene().releaseKeys();
+            }
+        });
+        // only presses wake the pacer: mouse movement and releases are not enough to leave the idle rate
+        stage.addEventFilter(KeyEvent.KEY_PRESSED, event -> pacer.wake(System.nanoTime()));
+        stage.addEventFilter(MouseEvent.MOUSE_PRESSED, event -> pacer.wake(System.nanoTime()));
+    }
 
-        tickHandler.handle(); // tick every object in the TickHandler's collection
+    /**
+     * Removes the current BattleScene from the TickHandler if there is one.
+     */
+    private void removeBattleScene() {
+        if (battleSceneHandle >= 0) {
+            tickHandler.removeObject(battleSceneHandle);
+            battleSceneHandle = -1;
+        }
     }
 
     /**
      * Invokes the RenderHandler, rendering every object in its collection.
      */
-    private void render() {
+    @Override
+    public void render() {
         renderHandler.handle();
     }
 
     /**
-     * Gets a singleton TickHandler and adds the SceneManager to its collection.
+     * Invokes the RenderHandler, rendering every object in its collection.
+     * @param alpha how far the game is between the last update and the next one, from 0 to 1
+     */
+    @Override
+    public void render(double alpha) {
+        renderHandler.handle(alpha);
+    }
+
+    /**
+     * Gets a singleton TickHandler and adds the SceneManager and the PlayScene to it. The SceneManager switches scenes
+     * in response to input, and the PlayScene moves the player and checks for collisions afterwards.
      */
     private void makeTickHandler() {
         tickHandler = TickHandler.getInstance();
-        tickHandler.addObject(sceneManager.getId(), sceneManager);
+        int sceneManagerHandle = tickHandler.addObject(TickPhase.INPUT, sceneManager);
+        tickHandler.addObject(TickPhase.COLLISION, sceneManager.getPlayScene(), sceneManagerHandle);
     }
 
     /**
@@ -101,6 +166,6 @@ public class Game extends Application {
      */
     private void makeRenderHandler() {
         renderHandler = RenderHandler.getInstance();
-        renderHandler.addObject(sceneManager.getId(), sceneManager);
+        renderHandler.addObject(sceneManager);
     }
 }
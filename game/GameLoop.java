@@ -0,0 +1,75 @@
+package rpgmain;
+
+/**
+ * Represents the part of the game loop that does not depend on any windowing toolkit. Each frame it asks a
+ * FixedTimestep how many updates are owed, ticks the simulation that many times, and then renders once. A LoopDriver
+ * decides when frames happen, so the same loop can be driven by a JavaFX window or run headless. An optional
+ * FramePacer can skip frames to cap the frame rate or save power while the game is idle.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class GameLoop {
+
+    private Tickable simulation; // the object updated on every fixed step
+    private Renderable presentation; // the object drawn once per frame
+    private FixedTimestep timestep; // turns the time between frames into a number of updates
+    private long tickCount; // how many updates have run since this loop was made
+    private FramePacer pacer; // decides which frames run, or null to run every frame
+
+    public GameLoop(Tickable simulation, Renderable presentation, FixedTimestep timestep) {
+        this.simulation = simulation;
+        this.presentation = presentation;
+        this.timestep = timestep;
+        tickCount = 0;
+    }
+
+    /**
+     * Runs one frame: ticks the simulation once for every fixed step that has passed, then renders. If there is a
+     * FramePacer and it says to skip this frame, does nothing. While the pacer is idle, at most one tick is run per
+     * frame and the rest of the time is dropped, so the simulation slows to the idle frame rate.
+     * @param now the current time in nanoseconds
+     * @return the number of times the simulation was ticked
+     */
+    public int frame(long now) {
+        if (pacer != null && !pacer.shouldRunFrame(now)) {
+            return 0;
+        }
+        FrameProfiler profiler = FrameProfiler.getInstance();
+        long start = profiler.begin();
+
+        int steps = (pacer != null && pacer.isIdle(now)) ? timestep.advance(now, 1) : timestep.advance(now);
+        for (int i = 0; i < steps; i++) {
+            simulation.tick();
+        }
+        tickCount += steps;
+        presentation.render(timestep.getAlpha());
+
+        profiler.end(FrameProfiler.Section.FRAME, start);
+        profiler.endFrame();
+        return steps;
+    }
+
+    /**
+     * Sets the FramePacer that decides which frames run.
+     * @param pacer the pacer, or null to run every frame
+     */
+    public void setPacer(FramePacer pacer) {
+        this.pacer = pacer;
+    }
+
+    /**
+     * Returns the FixedTimestep this loop uses.
+     * @return the FixedTimestep this loop uses.
+     */
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
+
+    /**
+     * Returns how many updates have run since this loop was made.
+     * @return how many updates have run since this loop was made.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+}
@@ -0,0 +1,255 @@
+package rpgmain;
+
+import java.util.Arrays;
+
+/**
+ * Represents a collection of objects stored contiguously in an array and identified by int handles. Handles stay
+ * valid until the object is removed, and are then recycled. Objects are kept in the order they were added so the
+ * collection can be looped over by index without making an iterator.
+ *
+ * While the collection is being looped over (between beginIteration and endIteration), adds and removes are queued
+ * and applied in order once the loop is done, so objects can add or remove other objects while they are being
+ * handled. Outside a loop, a removed object is dropped at once but leaves a gap in the array, and the gaps are closed
+ * in one pass the next time size or beginIteration is called, so removing many objects costs one pass in all instead
+ * of one pass each. Loops get their bounds from size, so they never see a gap.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ * @param <T> the type of object stored
+ */
+public class HandleRegistry<T> {
+
+    private static final int FREE = -1; // marks a handle that is not in use
+    private static final int PENDING_ADD = -2; // marks a handle whose object has not been added yet
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] objects; // the objects in indices 0 to size - 1, with null where one was removed outside a loop
+    private int[] handles; // the handle of the object at each index of objects
+    private int size; // the number of objects in objects, counting gaps
+    private int gaps; // the number of indices below size whose object was removed outside a loop
+
+    private int[] slots; // for each handle, the index of its object in objects, or FREE or PENDING_ADD
+    private int handleCount; // the number of handles ever given out
+    private int[] freeHandles; // a stack of handles that can be given out again
+    private int freeCount; // the number of handles in freeHandles
+
+    private int iterationDepth; // how many loops over this collection are in progress
+    private int[] pendingHandles; // the handles of queued adds and removes, in order
+    private Object[] pendingObjects; // the objects of queued adds, or null for a queued remove
+    private int pendingCount; // the number of queued adds and removes
+
+    public HandleRegistry() {
+        objects = new Object[INITIAL_CAPACITY];
+        handles = new int[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY];
+        freeHandles = new int[INITIAL_CAPACITY];
+        pendingHandles = new int[INITIAL_CAPACITY];
+        pendingObjects = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds an object and returns its handle. If the collection is being looped over, the object is added after the
+     * loop is done, but the handle can be used right away.
+     * @param object the object to add
+     * @return the handle of the object
+     */
+    public int add(T object) {
+        if (object == null) {
+            throw new IllegalArgumentException("object must not be null");
+        }
+        int handle = allocateHandle();
+        if (iterationDepth > 0) {
+            enqueue(handle, object);
+        } else {
+            append(handle, object);
+        }
+        return handle;
+    }
+
+    /**
+     * Removes the object with the given handle. Does nothing if the handle is not in use. If the collection is being
+     * looped over, the object is removed after the loop is done.
+     * @param handle the handle of the object to remove
+     */
+    public void remove(int handle) {
+        if (!contains(handle)) {
+            return;
+        }
+        if (iterationDepth > 0) {
+            enqueue(handle, null);
+        } else {
+            // the handle is given out again once the gap is closed
+            objects[slots[handle]] = null;
+            slots[handle] = FREE;
+            gaps++;
+        }
+    }
+
+    /**
+     * Returns true if the handle belongs to an object that is in the collection or queued to be added.
+     * @param handle the handle to check
+     * @return true if the handle is in use, false otherwise
+     */
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < handleCount && slots[handle] != FREE;
+    }
+
+    /**
+     * Returns the number of objects in the collection, not counting queued adds. Closes any gaps left by removes
+     * first, so indices from 0 to the result - 1 all hold objects.
+     * @return the number of objects in the collection
+     */
+    public int size() {
+        if (gaps > 0 && iterationDepth == 0) {
+            pack();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the object at the given index, where 0 is the object added first.
+     * @param index an index from 0 to size() - 1
+     * @return the object at the given index
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) objects[index];
+    }
+
+    /**
+     * Returns the handle of the object at the given index.
+     * @param index an index from 0 to size() - 1
+     * @return the handle of the object at the given index
+     */
+    public int getHandle(int index) {
+        return handles[index];
+    }
+
+    /**
+     * Marks the start of a loop over this collection. Until the matching endIteration, adds and removes are queued.
+     */
+    public void beginIteration() {
+        if (gaps > 0 && iterationDepth == 0) {
+            pack();
+        }
+        iterationDepth++;
+    }
+
+    /**
+     * Marks the end of a loop over this collection. When the outermost loop ends, applies queued adds and removes.
+     */
+    public void endIteration() {
+        if (--iterationDepth == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Applies queued adds and removes in the order they were made. Removed objects are dropped and the remaining
+     * objects are packed together in one pass so the order of the collection is kept.
+     */
+    @SuppressWarnings("unchecked")
+    private void flush() {
+        if (pendingCount == 0) {
+            return;
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            int handle = pendingHandles[i];
+            Object object = pendingObjects[i];
+            pendingObjects[i] = null;
+            if (object != null) {
+                append(handle, (T) object);
+            } else if (slots[handle] >= 0) {
+                // a handle removed twice in the same loop is only removed once
+                objects[slots[handle]] = null;
+                slots[handle] = FREE;
+                gaps++;
+            }
+        }
+        if (gaps > 0) {
+            pack();
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Closes the gaps left by removed objects in one pass, keeping the order of the rest, and releases the removed
+     * objects' handles.
+     */
+    private void pack() {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (objects[read] != null) {
+                objects[write] = objects[read];
+                handles[write] = handles[read];
+                slots[handles[write]] = write;
+                write++;
+            } else {
+                releaseHandle(handles[read]);
+            }
+        }
+        Arrays.fill(objects, write, size, null);
+        size = write;
+        gaps = 0;
+    }
+
+    /**
+     * Adds an object to the end of the packed array.
+     * @param handle the object's handle
+     * @param object the object
+     */
+    private void append(int handle, T object) {
+        if (size == objects.length) {
+            objects = Arrays.copyOf(objects, size * 2);
+            handles = Arrays.copyOf(handles, size * 2);
+        }
+        objects[size] = object;
+        handles[size] = handle;
+        slots[handle] = size;
+        size++;
+    }
+
+    /**
+     * Queues an add (if object is not null) or a remove (if object is null).
+     * @param handle the handle of the object
+     * @param object the object to add, or null to remove
+     */
+    private void enqueue(int handle, Object object) {
+        if (pendingCount == pendingHandles.length) {
+            pendingHandles = Arrays.copyOf(pendingHandles, pendingCount * 2);
+            pendingObjects = Arrays.copyOf(pendingObjects, pendingCount * 2);
+        }
+        pendingHandles[pendingCount] = handle;
+        pendingObjects[pendingCount] = object;
+        pendingCount++;
+    }
+
+    /**
+     * Returns a recycled handle if there is one, otherwise a new handle.
+     * @return a handle that is not in use
+     */
+    private int allocateHandle() {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (handleCount == slots.length) {
+                slots = Arrays.copyOf(slots, handleCount * 2);
+            }
+            handle = handleCount++;
+        }
+        slots[handle] = PENDING_ADD;
+        return handle;
+    }
+
+    /**
+     * Marks a handle as not in use so it can be given out again.
+     * @param handle the handle to release
+     */
+    private void releaseHandle(int handle) {
+        slots[handle] = FREE;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+}
@@ -0,0 +1,296 @@
+package rpgmain;
+
+import gameobject.Chunk;
+import gameobject.CollisionGrid;
+import gameobject.Enemy;
+import gameobject.EntityStore;
+import gameobject.Map;
+import gameobject.PillarMap;
+import gameobject.Player;
+import gameobject.Sweep;
+import javafx.scene.input.KeyCode;
+import javafx.scene.paint.Color;
+import rpgscene.Battle;
+import rpgscene.Overworld;
+import rpgscene.SceneState;
+import rpgscene.SceneStateMachine;
+
+import java.util.Random;
+
+/**
+ * Runs the game's tick graph without a window or any JavaFX resources, drives it with an UnthrottledLoopDriver and a
+ * NullRenderer, then prints how many ticks per second it reached. Used for server-side simulation, soak tests and
+ * benchmarks on machines without a display.
+ *
+ * The tick graph is the one Game builds, minus the scenes: every JavaFX Scene needs the toolkit, which needs a display,
+ * so the parts the scenes show are ticked on their own. A scene state machine is updated in the INPUT phase, like the
+ * SceneManager does; an Overworld moves the player and the enemies in the COLLISION phase, like the PlayScene does;
+ * and while the state is BATTLE a Battle is ticked in the BATTLE_RESOLUTION phase, like the BattleScene is. Player and
+ * enemy sprites are only made when something shows them, so nothing here makes a JavaFX node.
+ *
+ * An autopilot in the INPUT phase stands in for the user: it holds a random direction key or two, picks new ones every
+ * TURN_TICKS ticks, and leaves each battle after BATTLE_TICKS ticks, the way pressing escape does.
+ *
+ * Flags:
+ * --ticks=N   how many ticks to run (default DEFAULT_TICKS)
+ * --enemies=N how many enemies wander the MAP_SIZE x MAP_SIZE world map (default DEFAULT_ENEMIES)
+ * --party=N   how many members the player's party and each enemy's party have (default DEFAULT_PARTY)
+ * --crowd=N   how many more entities wander a second map, split into SHARDS EntityStores that are stepped at the same
+ *             time as ParallelTickables in the MOVEMENT phase (default DEFAULT_CROWD)
+ *
+ * Usage: HeadlessGame [--ticks=N] [--enemies=N] [--party=N] [--crowd=N]
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class HeadlessGame {
+
+    private static final String USAGE = "Usage: HeadlessGame [--ticks=N] [--enemies=N] [--party=N] [--crowd=N]";
+    private static final long DEFAULT_TICKS = 100_000; // how many ticks to run if --ticks is not given
+    private static final long DEFAULT_ENEMIES = 100; // how many enemies wander the world map if --enemies is not given
+    private static final long DEFAULT_PARTY = 100; // the size of every party if --party is not given
+    private static final long DEFAULT_CROWD = 10_000; // how many entities are in the crowd if --crowd is not given
+    private static final int MAP_SIZE = 256; // the number of rows and columns of the world map and the crowd's map
+    private static final int SHARDS = 64; // how many stores the crowd is split into and stepped at the same time
+    private static final double CHARACTER_SIZE = 20; // the width and height of the player and the enemies
+    private static final int TURN_TICKS = 120; // how long the autopilot holds the same keys
+    private static final int BATTLE_TICKS = 60; // how long the autopilot stays in a battle before leaving it
+
+    private static int battleHandle = -1; // the TickHandler handle of the current Battle, or -1 if there isn't one
+    private static long battles; // how many battles were started
+
+    public static void main(String[] args) {
+        long ticks = DEFAULT_TICKS;
+        long enemies = DEFAULT_ENEMIES;
+        long party = DEFAULT_PARTY;
+        long crowd = DEFAULT_CROWD;
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String flag = (equals < 0) ? arg : arg.substring(0, equals);
+            long value = (equals < 0) ? -1 : parseCount(arg.substring(equals + 1));
+            if (value < 0) {
+                usage("Bad argument: " + arg);
+            }
+            switch (flag) {
+                case "--ticks":
+                    ticks = value;
+                    break;
+                case "--enemies":
+                    enemies = value;
+                    break;
+                case "--party":
+                    party = value;
+                    break;
+                case "--crowd":
+                    crowd = value;
+                    break;
+                default:
+                    usage("Unknown flag: " + flag);
+            }
+        }
+        if (party < 1) {
+            usage("--party must be at least 1");
+        }
+
+        TickHandler tickHandler = TickHandler.getInstance();
+        addWorld(tickHandler, (int) enemies, (int) party);
+        if (crowd > 0) {
+            addCrowd(tickHandler, (int) crowd);
+        }
+        GameLoop loop = new GameLoop(tickHandler::handle, new NullRenderer(), new FixedTimestep(60, 1));
+
+        long start = System.nanoTime();
+        new UnthrottledLoopDriver(ticks).start(loop);
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.println(loop.getTickCount() + " ticks in " + seconds + " s (" + (loop.getTickCount() / seconds)
+                + " ticks/s), " + battles + " battles");
+    }
+
+    /**
+     * Returns a flag's value as a whole number, or -1 if it is not one or is out of range.
+     * @param value the text after the '='
+     * @return the value, or -1 if it is not a whole number from 0 to Integer.MAX_VALUE
+     */
+    private static long parseCount(String value) {
+        try {
+            long count = Long.parseLong(value);
+            return (count <= Integer.MAX_VALUE) ? count : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Prints what was wrong with the command line and how to use it, then exits.
+     * @param problem what was wrong
+     */
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+
+    /**
+     * Adds the game's tick graph to the TickHandler, as Game does: the autopilot and the state machine in INPUT, the
+     * Overworld in COLLISION after them, and a Battle in BATTLE_RESOLUTION whenever the state is BATTLE. The world map
+     * has no parent, since its tiles are never shown.
+     * @param tickHandler the TickHandler to add the graph to
+     * @param enemyCount how many enemies wander the world map
+     * @param partySize how many members each party has
+     */
+    private static void addWorld(TickHandler tickHandler, int enemyCount, int partySize) {
+        SceneStateMachine stateMachine = new SceneStateMachine(SceneState.PLAY);
+        Map map = PillarMap.create(MAP_SIZE, null);
+        Player player = makeParty(partySize);
+        Overworld overworld = new Overworld(map, player, stateMachine);
+
+        // put the enemies anywhere open that is not where the player starts
+        CollisionGrid grid = new CollisionGrid(map);
+        Random random = new Random(42);
+        double size = MAP_SIZE * PillarMap.TILE_SIZE;
+        for (int i = 0; i < enemyCount; i++) {
+            double x;
+            double y;
+            do {
+                x = random.nextDouble() * size;
+                y = random.nextDouble() * size;
+            } while (grid.overlapsSolid(x, y, CHARACTER_SIZE, CHARACTER_SIZE)
+                    || (Math.abs(x - player.getX()) < CHARACTER_SIZE && Math.abs(y - player.getY()) < CHARACTER_SIZE));
+            double changeInX = (random.nextDouble() * 2 - 1) * PillarMap.MAX_SPEED;
+            double changeInY = (random.nextDouble() * 2 - 1) * PillarMap.MAX_SPEED;
+            Enemy enemy = null;
+            for (int j = 0; j < partySize; j++) {
+                enemy = new Enemy(x, y, CHARACTER_SIZE, CHARACTER_SIZE, changeInX, changeInY, Color.RED,
+                        "enemy" + i + "." + j, 300, 40, enemy);
+            }
+            overworld.addEnemy(enemy);
+        }
+
+        // when a battle starts its Battle is ticked, and when it ends in any way it is removed
+        stateMachine.onEnter(SceneState.BATTLE, () -> {
+            battles++;
+            battleHandle = tickHandler.addObject(TickPhase.BATTLE_RESOLUTION,
+                    new Battle(player, player.getCurrentOpponent(), stateMachine));
+        });
+        stateMachine.onExit(SceneState.BATTLE, () -> {
+            tickHandler.removeObject(battleHandle);
+            battleHandle = -1;
+        });
+
+        int autopilotHandle = tickHandler.addObject(TickPhase.INPUT, new Autopilot(overworld, stateMachine));
+        int stateMachineHandle = tickHandler.addObject(TickPhase.INPUT, stateMachine::update, autopilotHandle);
+        tickHandler.addObject(TickPhase.COLLISION, overworld, stateMachineHandle);
+    }
+
+    /**
+     * Returns the leader of a party of players, standing where the SceneManager puts the player on screen.
+     * @param partySize how many members the party has
+     * @return the party's leader
+     */
+    private static Player makeParty(int partySize) {
+        Player player = null;
+        for (int i = 0; i < partySize; i++) {
+            player = new Player(500, 750 / 2, CHARACTER_SIZE, CHARACTER_SIZE, 0, 0, Color.BLACK, "player" + i, 200, 20,
+                    player);
+        }
+        return player;
+    }
+
+    /**
+     * Stands in for the user: holds a random direction key or two on the world map, picking new ones every TURN_TICKS
+     * ticks and right after a battle, and leaves each battle after BATTLE_TICKS ticks.
+     */
+    private static class Autopilot implements Tickable {
+
+        private static final KeyCode[] HORIZONTAL = {KeyCode.LEFT, KeyCode.RIGHT, null}; // null holds neither key
+        private static final KeyCode[] VERTICAL = {KeyCode.UP, KeyCode.DOWN, null};
+
+        private final Overworld overworld;
+        private final SceneStateMachine stateMachine;
+        private final Random random = new Random(7);
+        private int turnTicks; // ticks until new keys are picked
+        private int battleTicks; // ticks spent in the current battle
+
+        Autopilot(Overworld overworld, SceneStateMachine stateMachine) {
+            this.overworld = overworld;
+            this.stateMachine = stateMachine;
+        }
+
+        @Override
+        public void tick() {
+            if (stateMachine.getState() == SceneState.BATTLE) {
+                if (++battleTicks >= BATTLE_TICKS) {
+                    stateMachine.request(SceneState.BATTLE_OVER);
+                    battleTicks = 0;
+                }
+                // the overworld lets go of every key during a battle, so press new ones as soon as it is over
+                turnTicks = 0;
+                return;
+            }
+            if (--turnTicks <= 0) {
+                overworld.releaseKeys();
+                KeyCode horizontal = HORIZONTAL[random.nextInt(HORIZONTAL.length)];
+                KeyCode vertical = VERTICAL[random.nextInt(VERTICAL.length)];
+                if (horizontal != null) {
+                    overworld.offerKey(horizontal, true);
+                }
+                if (vertical != null) {
+                    overworld.offerKey(vertical, true);
+                }
+                turnTicks = TURN_TICKS;
+            }
+        }
+    }
+
+    /**
+     * A ParallelTickable that steps one shard of the crowd. Each shard has its own CollisionGrid and Sweep, since both
+     * are changed while stepping, so shards only share the map, which they only read.
+     */
+    private static class EntityShard implements ParallelTickable {
+
+        private final EntityStore store = new EntityStore();
+        private final CollisionGrid grid;
+        private final Sweep sweep = new Sweep();
+
+        EntityShard(Map map) {
+            grid = new CollisionGrid(map);
+        }
+
+        @Override
+        public void tick() {
+            store.step(grid, sweep);
+            store.clearMoved();
+        }
+    }
+
+    /**
+     * Adds the crowd to the TickHandler: entities wandering a map of their own, half of them sliding along solid tiles,
+     * dealt out to SHARDS shards. The map has no parent and the entities have no sprites, so no JavaFX nodes are made.
+     * Every chunk of the map is loaded first and the map is never ticked, so nothing unloads them and the shards can
+     * read it at the same time.
+     * @param tickHandler the TickHandler to add the crowd to
+     * @param count how many entities are in the crowd
+     */
+    private static void addCrowd(TickHandler tickHandler, int count) {
+        Map map = PillarMap.create(MAP_SIZE, null);
+        int chunks = (MAP_SIZE + Chunk.SIZE - 1) / Chunk.SIZE;
+        for (int chunkRow = 0; chunkRow < chunks; chunkRow++) {
+            for (int chunkCol = 0; chunkCol < chunks; chunkCol++) {
+                map.getChunk(chunkRow, chunkCol);
+            }
+        }
+        EntityShard[] shards = new EntityShard[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new EntityShard(map);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            int flags = (i % 2 == 0) ? EntityStore.COLLIDES_WITH_TILES : 0;
+            PillarMap.addWanderer(shards[i % SHARDS].store, map, shards[0].grid, random, flags);
+        }
+        for (EntityShard shard : shards) {
+            tickHandler.addObject(TickPhase.MOVEMENT, shard);
+        }
+    }
+}
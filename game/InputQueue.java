@@ -0,0 +1,86 @@
+package rpgmain;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a fixed-size queue of input events passed from one producer, such as the JavaFX key callbacks, to one
+ * consumer, such as the tick. Events are packed into ints and stored in a preallocated ring, and the two sides only
+ * share the read and write counters, so neither side ever locks, waits or creates objects. If the producer gets too
+ * far ahead, new events are dropped and the queue remembers that it overflowed.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class InputQueue {
+
+    private final int[] events; // the ring of events, whose length is a power of two
+    private final int mask; // events.length - 1, to wrap a counter into an index
+    private final AtomicLong head = new AtomicLong(); // the number of events ever read, written only by the consumer
+    private final AtomicLong tail = new AtomicLong(); // the number of events ever written, written only by the producer
+    private final AtomicBoolean overflowed = new AtomicBoolean(); // true if an event was dropped since the last check
+
+    public InputQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a positive power of two");
+        }
+        events = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds an event to the back of the queue. Only call this from the producer's thread.
+     * @param event the event to add
+     * @return true if the event was added, false if the queue was full and the event was dropped
+     */
+    public boolean offer(int event) {
+        long writeCount = tail.get();
+        if (writeCount - head.get() == events.length) {
+            overflowed.lazySet(true);
+            return false;
+        }
+        events[(int) writeCount & mask] = event;
+        // publish the event only after it is written
+        tail.lazySet(writeCount + 1);
+        return true;
+    }
+
+    /**
+     * Returns true if there are no events to read. Only call this from the consumer's thread.
+     * @return true if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Removes and returns the event at the front of the queue. Only call this from the consumer's thread, and only
+     * when the queue is not empty.
+     * @return the event at the front of the queue
+     */
+    public int poll() {
+        long readCount = head.get();
+        if (readCount == tail.get()) {
+            throw new IllegalStateException("the input queue is empty");
+        }
+        int event = events[(int) readCount & mask];
+        // free the slot only after the event is read
+        head.lazySet(readCount + 1);
+        return event;
+    }
+
+    /**
+     * Returns true if an event was dropped since this was last called, and forgets that it was.
+     * @return true if the queue overflowed, false otherwise
+     */
+    public boolean takeOverflow() {
+        return overflowed.getAndSet(false);
+    }
+
+    /**
+     * Returns the most events the queue can hold.
+     * @return the most events the queue can hold.
+     */
+    public int getCapacity() {
+        return events.length;
+    }
+}
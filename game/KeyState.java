@@ -0,0 +1,84 @@
+package rpgmain;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Represents which keys are held down, as one bit per KeyCode. Key events are packed into ints by encode, passed
+ * through an InputQueue, and applied here when the tick drains the queue, so checking a key is one bit test and never
+ * compares strings.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class KeyState {
+
+    public static final int RELEASE_ALL = -1; // an event that releases every key, such as when the window loses focus
+
+    private static final int PRESSED = 1; // the bit of an event that says the key was pressed rather than released
+    private static final KeyCode[] CODES = KeyCode.values(); // every KeyCode, by ordinal
+
+    private final long[] down = new long[(CODES.length + 63) / 64]; // the bit of each held key is set, by ordinal
+
+    /**
+     * Packs a key being pressed or released into an int event.
+     * @param code the key
+     * @param pressed true if the key was pressed, false if it was released
+     * @return the event
+     */
+    public static int encode(KeyCode code, boolean pressed) {
+        return (code.ordinal() << 1) | (pressed ? PRESSED : 0);
+    }
+
+    /**
+     * Applies every event waiting in a queue, in order. If the queue dropped events because it was full, every key
+     * is released afterwards, since a dropped release would otherwise leave a key held forever.
+     * @param queue the queue to drain
+     */
+    public void drain(InputQueue queue) {
+        while (!queue.isEmpty()) {
+            apply(queue.poll());
+        }
+        if (queue.takeOverflow()) {
+            releaseAll();
+        }
+    }
+
+    /**
+     * Applies one event made by encode, or RELEASE_ALL.
+     * @param event the event
+     */
+    public void apply(int event) {
+        if (event == RELEASE_ALL) {
+            releaseAll();
+            return;
+        }
+        int ordinal = event >>> 1;
+        if (event < 0 || ordinal >= CODES.length) {
+            throw new IllegalArgumentException("event " + event + " is not a key event");
+        }
+        if ((event & PRESSED) != 0) {
+            down[ordinal >>> 6] |= 1L << ordinal;
+        } else {
+            down[ordinal >>> 6] &= ~(1L << ordinal);
+        }
+    }
+
+    /**
+     * Returns true if a key is held down.
+     * @param code the key
+     * @return true if the key is held down, false otherwise
+     */
+    public boolean isDown(KeyCode code) {
+        int ordinal = code.ordinal();
+        return (down[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Releases every key, for when key releases can no longer be seen, such as when another scene or another window has
+     * the keyboard.
+     */
+    public void releaseAll() {
+        for (int i = 0; i < down.length; i++) {
+            down[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package rpgmain;
+
+import java.util.Arrays;
+
+/**
+ * Represents a histogram of durations in nanoseconds that uses a fixed amount of memory no matter how many values are
+ * recorded. Values are grouped into buckets: every power of two is split into 16 buckets, so a reported percentile is
+ * never more than about 6% above the real value. Recording a value does not allocate.
+ *
+ * Not safe to record into from more than one thread at a time.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4; // each power of two is split into 2^SUB_BUCKET_BITS buckets
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private long[] counts; // how many values fell into each bucket
+    private long count; // how many values were recorded
+    private long max; // the largest value recorded
+
+    public LatencyHistogram() {
+        counts = new long[BUCKETS];
+    }
+
+    /**
+     * Records one duration. Negative values are recorded as 0.
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[bucketOf(value)]++;
+        count++;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Returns an upper bound for the given percentile of the recorded values, or 0 if nothing was recorded.
+     * @param percentile a percentile from 0 to 100, for example 99.9
+     * @return the value at or below which the given percent of the recorded values fall
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the median of the recorded values.
+     * @return the median of the recorded values
+     */
+    public long getP50() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile of the recorded values.
+     * @return the 99th percentile of the recorded values
+     */
+    public long getP99() {
+        return getPercentile(99);
+    }
+
+    /**
+     * Returns the 99.9th percentile of the recorded values.
+     * @return the 99.9th percentile of the recorded values
+     */
+    public long getP999() {
+        return getPercentile(99.9);
+    }
+
+    /**
+     * Returns the largest value recorded.
+     * @return the largest value recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns how many values were recorded.
+     * @return how many values were recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    /**
+     * Returns the index of the bucket a value falls into.
+     * @param value a value that is 0 or more
+     * @return the index of the value's bucket
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // at least SUB_BUCKET_BITS
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Returns the largest value that falls into a bucket.
+     * @param bucket the index of the bucket
+     * @return the largest value in the bucket
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
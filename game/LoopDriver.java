@@ -0,0 +1,20 @@
+package rpgmain;
+
+/**
+ * Represents an object that decides when the frames of a GameLoop happen.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public interface LoopDriver {
+
+    /**
+     * Starts calling the given loop's frame method.
+     * @param loop the loop to drive
+     */
+    void start(GameLoop loop);
+
+    /**
+     * Stops calling the loop's frame method.
+     */
+    void stop();
+}
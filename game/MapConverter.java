@@ -0,0 +1,57 @@
+package rpgmain;
+
+import gameobject.LayoutChunkSource;
+import gameobject.Map;
+import gameobject.MappedMapFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Converts a text layout into a binary map file that can be opened with MappedMapFile. The text layout has one line
+ * per row of tiles and one char per tile, read the same way as Map's default layout: '1' is a solid tile, 'w' is
+ * water, 't' is a torch and '0' or any other char is an open tile. Water and torches are animated but, like open
+ * tiles, can be walked through. If no text layout is given, the default layout is converted.
+ * Usage: MapConverter [layout.txt] output.rpm
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class MapConverter {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: MapConverter [layout.txt] output.rpm");
+            System.exit(1);
+        }
+        char[][] layout = (args.length == 2) ? readLayout(Paths.get(args[0])) : Map.getDefaultLayout();
+        Path output = Paths.get(args[args.length - 1]);
+
+        MappedMapFile.write(output, new LayoutChunkSource(layout));
+        System.out.println("wrote " + layout.length + " x " + layout[0].length + " map to " + output);
+    }
+
+    /**
+     * Reads a text layout, skipping blank lines. Every row must be as long as the first.
+     * @param path the text layout to read
+     * @return the layout, one char per tile
+     * @throws IOException if the file cannot be read
+     */
+    private static char[][] readLayout(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        lines.removeIf(line -> line.trim().isEmpty());
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException(path + " has no rows");
+        }
+        char[][] layout = new char[lines.size()][];
+        for (int row = 0; row < layout.length; row++) {
+            layout[row] = lines.get(row).trim().toCharArray();
+            if (layout[row].length != layout[0].length) {
+                throw new IllegalArgumentException("row " + row + " of " + path + " is not as long as the first row");
+            }
+        }
+        return layout;
+    }
+}
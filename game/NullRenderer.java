@@ -0,0 +1,24 @@
+package rpgmain;
+
+/**
+ * A Renderable that draws nothing. Used when the game runs without a window.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class NullRenderer implements Renderable {
+
+    /**
+     * Does nothing.
+     */
+    @Override
+    public void render() {
+    }
+
+    /**
+     * Does nothing.
+     * @param alpha ignored
+     */
+    @Override
+    public void render(double alpha) {
+    }
+}
@@ -0,0 +1,149 @@
+package rpgmain;
+
+import java.util.Arrays;
+
+/**
+ * Represents the total time, longest time, number of calls and a rough histogram of call times recorded for each
+ * object in one registry of a handler, indexed by the object's handle in that registry. Space is made when an object
+ * is added, so recording does not allocate.
+ *
+ * Only record is called from more than one thread: TickHandler calls it from the ForkJoinPool's workers while the
+ * game loop's thread waits for them, and objects ticked at the same time have different handles, so they never write
+ * to the same entry. track and reset are only called on the game loop's thread while no workers are running, and
+ * ForkJoinPool.invoke makes what was written before and during the workers' run visible afterwards, so nothing here
+ * takes a lock.
+ *
+ * The histogram of each object has one bucket per power of two nanoseconds, so the percentiles it reports are upper
+ * bounds that are never more than twice the real value. This keeps an object's entry small enough for handlers holding
+ * many thousands of objects; the phase and section histograms in FrameProfiler are the precise ones.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class ObjectTimings {
+
+    private static final int BUCKETS = 32; // bucket i holds calls shorter than 2^i ns; the last also holds longer ones
+
+    private long[] totals; // the total time spent in each object
+    private long[] maxes; // the longest single call to each object
+    private long[] calls; // how many calls to each object were recorded
+    private int[] buckets; // each object's histogram of call times, BUCKETS entries per object
+
+    public ObjectTimings() {
+        totals = new long[16];
+        maxes = new long[16];
+        calls = new long[16];
+        buckets = new int[16 * BUCKETS];
+    }
+
+    /**
+     * Makes sure there is room to record the object with the given handle, and clears anything left over from an
+     * object that used the handle before.
+     * @param handle the object's handle
+     */
+    public void track(int handle) {
+        if (handle >= totals.length) {
+            int length = Math.max(handle + 1, totals.length * 2);
+            totals = Arrays.copyOf(totals, length);
+            maxes = Arrays.copyOf(maxes, length);
+            calls = Arrays.copyOf(calls, length);
+            buckets = Arrays.copyOf(buckets, length * BUCKETS);
+        }
+        totals[handle] = 0;
+        maxes[handle] = 0;
+        calls[handle] = 0;
+        Arrays.fill(buckets, handle * BUCKETS, (handle + 1) * BUCKETS, 0);
+    }
+
+    /**
+     * Records one call to an object.
+     * @param handle the object's handle
+     * @param nanos how long the call took in nanoseconds
+     */
+    public void record(int handle, long nanos) {
+        totals[handle] += nanos;
+        calls[handle]++;
+        if (nanos > maxes[handle]) {
+            maxes[handle] = nanos;
+        }
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)));
+        buckets[handle * BUCKETS + bucket]++;
+    }
+
+    /**
+     * Returns the total time recorded for an object in nanoseconds.
+     * @param handle the object's handle
+     * @return the total time recorded for the object
+     */
+    public long getTotalNanos(int handle) {
+        return handle < totals.length ? totals[handle] : 0;
+    }
+
+    /**
+     * Returns the longest single call recorded for an object in nanoseconds.
+     * @param handle the object's handle
+     * @return the longest call recorded for the object
+     */
+    public long getMaxNanos(int handle) {
+        return handle < maxes.length ? maxes[handle] : 0;
+    }
+
+    /**
+     * Returns how many calls were recorded for an object.
+     * @param handle the object's handle
+     * @return how many calls were recorded for the object
+     */
+    public long getCalls(int handle) {
+        return handle < calls.length ? calls[handle] : 0;
+    }
+
+    /**
+     * Returns an upper bound for the given percentile of the call times recorded for an object, or 0 if nothing was
+     * recorded.
+     * @param handle the object's handle
+     * @param percentile a percentile from 0 to 100, for example 99
+     * @return the time in nanoseconds at or below which the given percent of the object's calls took
+     */
+    public long getPercentile(int handle, double percentile) {
+        if (handle >= calls.length || calls[handle] == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * calls[handle]));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += buckets[handle * BUCKETS + i];
+            if (seen >= target) {
+                // bucket i holds calls shorter than 2^i ns
+                return Math.min((1L << i) - 1, maxes[handle]);
+            }
+        }
+        return maxes[handle];
+    }
+
+    /**
+     * Returns the median of the call times recorded for an object.
+     * @param handle the object's handle
+     * @return the median of the object's call times
+     */
+    public long getP50(int handle) {
+        return getPercentile(handle, 50);
+    }
+
+    /**
+     * Returns the 99th percentile of the call times recorded for an object.
+     * @param handle the object's handle
+     * @return the 99th percentile of the object's call times
+     */
+    public long getP99(int handle) {
+        return getPercentile(handle, 99);
+    }
+
+    /**
+     * Forgets everything recorded.
+     */
+    public void reset() {
+        Arrays.fill(totals, 0);
+        Arrays.fill(maxes, 0);
+        Arrays.fill(calls, 0);
+        Arrays.fill(buckets, 0);
+    }
+}
@@ -0,0 +1,12 @@
+package rpgmain;
+
+/**
+ * Represents a Tickable that is safe to tick at the same time as other ParallelTickables in its phase. The TickHandler
+ * ticks these objects on worker threads, so during tick an object may only read shared state and change its own
+ * fields. Anything else, including changes to JavaFX nodes and adding or removing objects from a handler, must be
+ * passed to TickHandler's commit method, which applies it on the game loop's thread once the parallel ticks are done.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public interface ParallelTickable extends Tickable {
+}
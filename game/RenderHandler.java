@@ -1,19 +1,21 @@
 package rpgmain;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 /**
- * A singleton class that manages a hash table of objects that must be redrawn whenever the game updates.
+ * A singleton class that manages a collection of objects that must be redrawn whenever the game updates. Only objects
+ * that report themselves as dirty are rendered, so frames where nothing changed cost almost nothing. Objects are
+ * stored in a HandleRegistry, so adding or removing objects while they are being rendered is safe: the change takes
+ * effect at the end of the current frame.
  * @Author Tony Comanzo ICSI 311
  * Version 1.0
  */
 public class RenderHandler implements Handler {
 
-    private LinkedHashMap<String, Renderable> objectList; // the hash table
+    private HandleRegistry<Renderable> objects; // the objects to render, in the order they were added
+    private FrameProfiler profiler; // records how long rendering and each object takes
 
     private RenderHandler() {
-        objectList = new LinkedHashMap<>();
+        objects = new HandleRegistry<>();
+        profiler = FrameProfiler.getInstance();
     }
 
     /**
@@ -24,31 +26,54 @@ public class RenderHandler implements Handler {
     }
 
     /**
-     * Calls the render method on each object in the hash table.
+     * Calls the render method on each object in the collection.
      */
     @Override
     public void handle() {
-        for (Map.Entry<String, Renderable> entry : objectList.entrySet()) {
-            entry.getValue().render();
+        handle(1);
+    }
+
+    /**
+     * Calls the render method on each dirty object in the collection, passing along how far the game is between two
+     * simulation steps. Objects that have not changed are skipped, so when nothing changed no object does any work.
+     * JavaFX shows the scene graph on its own pulse, so there is nothing else for the game loop to skip.
+     * @param alpha how far the game is between the last simulation step and the next one, from 0 to 1
+     */
+    public void handle(double alpha) {
+        long start = profiler.begin();
+        objects.beginIteration();
+        try {
+            for (int i = 0; i < objects.size(); i++) {
+                Renderable object = objects.get(i);
+                if (object.isDirty()) {
+                    long objectStart = profiler.begin();
+                    object.render(alpha);
+                    profiler.endRenderObject(objects.getHandle(i), objectStart);
+                }
+            }
+        } finally {
+            objects.endIteration();
         }
+        profiler.end(FrameProfiler.Section.RENDER, start);
     }
 
     /**
-     * Removes an object from the object's hash table.
-     * @param key key of which value is to be removed
+     * Removes an object from the collection. Does nothing if the handle is not in use.
+     * @param handle handle of the object to be removed
      */
-    @Override
-    public void removeObject(String key) {
-        objectList.remove(key);
+    public void removeObject(int handle) {
+        objects.remove(handle);
     }
 
     /**
-     * Adds an object to the hash table given the associated key.
-     * @param key the object's key value
+     * Adds an object to the collection and returns the handle used to remove it.
      * @param value the object
+     * @return the object's handle
      */
-    public void addObject(String key, Renderable value) {
-        objectList.put(key, value);
+    public int addObject(Renderable value) {
+        int handle = objects.add(value);
+        profiler.getRenderObjects().track(handle);
+        return handle;
     }
 
     /**
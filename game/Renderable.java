@@ -1,7 +1,9 @@
 package rpgmain;
 
 /**
- * Represents an object whose graphics must be updated or redrawn whenever the game updates.
+ * Represents an object whose graphics must be updated or redrawn whenever the game updates. Objects that track their
+ * own changes override isDirty to return true only when they need to be redrawn, and clear that flag in render.
+ * Objects that do not track changes are redrawn every frame.
  * @Author Tony Comanzo
  * Version 1.0
  */
@@ -11,4 +13,21 @@ public interface Renderable {
      * Redraws this object.
      */
     void render();
+
+    /**
+     * Redraws this object given how far the game is between two simulation steps. Objects that do not interpolate
+     * can ignore alpha, which is what the default does.
+     * @param alpha how far the game is between the last simulation step and the next one, from 0 to 1
+     */
+    default void render(double alpha) {
+        render();
+    }
+
+    /**
+     * Returns true if this object has changed since it was last rendered. The default always returns true.
+     * @return true if this object needs to be redrawn, false otherwise
+     */
+    default boolean isDirty() {
+        return true;
+    }
 }
@@ -1,19 +1,47 @@
 package rpgmain;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * A singleton class that manages a hash table of objects that update every iteration of the game loop.
+ * A singleton class that manages the objects that update every iteration of the game loop. Each object is added to a
+ * TickPhase, and phases are ticked in order. Within a phase, serial objects are ticked in the order they were added.
+ *
+ * Objects that implement ParallelTickable are ticked first in their phase, at the same time, on a work-stealing
+ * ForkJoinPool. Changes they pass to commit are then applied one after another on the calling thread, and the rest of
+ * the phase's objects are ticked in order.
+ *
+ * Objects are stored in HandleRegistries, so adding or removing objects while they are being ticked is safe: the change
+ * takes effect at the end of the current phase.
  * @Author Tony Comanzo ICSI 311
  * Version 1.0
  */
 public class TickHandler implements Handler {
 
-    private LinkedHashMap<String, Tickable> objectList; // the hash table
+    private static final TickPhase[] PHASES = TickPhase.values();
+    private static final int LANE_BITS = 4; // the low bits of a handle that hold its lane
+    private static final int LANE_MASK = (1 << LANE_BITS) - 1;
+    static final int LANES = PHASES.length * 2; // a serial lane and a parallel lane for each phase
+    private static final int SPLIT_THRESHOLD = 16; // the most objects a worker ticks without splitting the work
 
+    // the objects to tick. Each phase has two lanes: lane phase * 2 holds serial objects and lane phase * 2 + 1
+    // holds ParallelTickables.
+    private HandleRegistry<Tickable>[] lanes;
+
+    private FrameProfiler profiler; // records how long each phase and object takes
+    private ForkJoinPool pool; // the workers that tick ParallelTickables
+    private ConcurrentLinkedQueue<Runnable> commits; // changes waiting to be applied on the calling thread
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private TickHandler() {
-        objectList = new LinkedHashMap<>();
+        lanes = new HandleRegistry[LANES];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new HandleRegistry<>();
+        }
+        profiler = FrameProfiler.getInstance();
+        pool = ForkJoinPool.commonPool();
+        commits = new ConcurrentLinkedQueue<>();
     }
 
     /**
@@ -24,31 +52,211 @@ public class TickHandler implements Handler {
     }
 
     /**
-     * Calls the tick method on each object in the hash table.
+     * Ticks every phase in order.
      */
     @Override
     public void handle() {
-        for (Map.Entry<String, Tickable> entry : objectList.entrySet()) {
-            entry.getValue().tick();
+        long start = profiler.begin();
+        for (TickPhase phase : PHASES) {
+            handle(phase);
         }
+        profiler.end(FrameProfiler.Section.TICK, start);
     }
 
     /**
-     * Adds an object to the hash table given the associated key.
-     * @param key the object's key value
+     * Calls the tick method on each object in one phase. ParallelTickables are ticked first, at the same time, and
+     * then the changes they committed are applied. Then the serial objects are ticked in the order they were added,
+     * and the changes they committed are applied. Objects added or removed during this call are added or removed once
+     * every object in the phase has been ticked.
+     * @param phase the phase to tick
+     */
+    public void handle(TickPhase phase) {
+        long start = profiler.begin();
+        int parallelLane = phase.ordinal() * 2 + 1;
+        int serialLane = phase.ordinal() * 2;
+        HandleRegistry<Tickable> parallel = lanes[parallelLane];
+        HandleRegistry<Tickable> serial = lanes[serialLane];
+        parallel.beginIteration();
+        serial.beginIteration();
+        try {
+            // small batches are not worth handing to other threads
+            if (parallel.size() > SPLIT_THRESHOLD) {
+                pool.invoke(new TickTask(parallelLane, 0, parallel.size()));
+            } else {
+                tickRange(parallelLane, 0, parallel.size());
+            }
+            applyCommits();
+
+            tickRange(serialLane, 0, serial.size());
+            applyCommits();
+        } finally {
+            parallel.endIteration();
+            serial.endIteration();
+        }
+        profiler.endPhase(phase, start);
+    }
+
+    /**
+     * Queues a change to be applied on the game loop's thread after the current batch of ticks. ParallelTickables use
+     * this for anything that is not safe to do from a worker thread, such as changing JavaFX nodes. Safe to call from
+     * any thread.
+     * @param change the change to apply
+     */
+    public void commit(Runnable change) {
+        commits.add(change);
+    }
+
+    /**
+     * Applies every queued change in the order it was committed.
+     */
+    private void applyCommits() {
+        Runnable change;
+        while ((change = commits.poll()) != null) {
+            change.run();
+        }
+    }
+
+    /**
+     * Ticks the objects in a lane from index start up to (but not including) index end. If profiling is on, times each
+     * object.
+     * @param lane the lane of the objects to tick
+     * @param start the first index to tick
+     * @param end one past the last index to tick
+     */
+    private void tickRange(int lane, int start, int end) {
+        HandleRegistry<Tickable> objects = lanes[lane];
+        if (!profiler.isEnabled()) {
+            for (int i = start; i < end; i++) {
+                objects.get(i).tick();
+            }
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            long objectStart = profiler.begin();
+            objects.get(i).tick();
+            profiler.endTickObject(lane, objects.getHandle(i), objectStart);
+        }
+    }
+
+    /**
+     * A task that ticks a range of ParallelTickables, splitting the range in half and handing one half to another
+     * worker until the range is small.
+     */
+    private class TickTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int lane;
+        private final int start;
+        private final int end;
+
+        TickTask(int lane, int start, int end) {
+            this.lane = lane;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= SPLIT_THRESHOLD) {
+                tickRange(lane, start, end);
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new TickTask(lane, start, middle), new TickTask(lane, middle, end));
+            }
+        }
+    }
+
+    /**
+     * Adds an object to a phase and returns the handle used to remove it. The object can be given the handles of
+     * objects it must run after. Those objects must already be added, and be in the same phase or an earlier one;
+     * since serial objects in a phase run after the ParallelTickables and in the order they were added, this is enough
+     * to guarantee the order. A ParallelTickable has no order within its phase, so it can only run after objects in
+     * earlier phases.
+     * @param phase the phase the object is ticked in
      * @param value the object
+     * @param runsAfter handles of objects that must be ticked before this one
+     * @return the object's handle
+     * @throws IllegalArgumentException if a handle in runsAfter is not in use or is in a later phase, or if a
+     * ParallelTickable is made to run after an object in its own phase
      */
-    public void addObject(String key, Tickable value) {
-        objectList.put(key, value);
+    public int addObject(TickPhase phase, Tickable value, int... runsAfter) {
+        boolean isParallel = value instanceof ParallelTickable;
+        for (int dependency : runsAfter) {
+            if (!contains(dependency)) {
+                throw new IllegalArgumentException("handle " + dependency + " is not registered");
+            }
+            int order = phaseOf(dependency).compareTo(phase);
+            if (order > 0) {
+                throw new IllegalArgumentException("an object in " + phase + " cannot run after an object in "
+                        + phaseOf(dependency));
+            }
+            if (order == 0 && isParallel) {
+                throw new IllegalArgumentException("a ParallelTickable cannot run after an object in its own phase "
+                        + phase);
+            }
+        }
+        int lane = phase.ordinal() * 2 + (isParallel ? 1 : 0);
+        int index = lanes[lane].add(value);
+        profiler.getTickObjects(lane).track(index);
+        return (index << LANE_BITS) | lane;
     }
 
     /**
-     * Removes an object from the object's hash table.
-     * @param key key of which value is to be removed
+     * Removes an object. Does nothing if the handle is not in use.
+     * @param handle handle of the object to be removed
      */
-    @Override
-    public void removeObject(String key) {
-        objectList.remove(key);
+    public void removeObject(int handle) {
+        if (contains(handle)) {
+            lanes[laneOf(handle)].remove(indexOf(handle));
+        }
+    }
+
+    /**
+     * Returns true if the handle belongs to an object in this TickHandler.
+     * @param handle the handle to check
+     * @return true if the handle is in use, false otherwise
+     */
+    public boolean contains(int handle) {
+        int lane = laneOf(handle);
+        return handle >= 0 && lane < lanes.length && lanes[lane].contains(indexOf(handle));
+    }
+
+    /**
+     * Returns the lane of the object with the given handle: phase * 2 for serial objects and phase * 2 + 1 for
+     * ParallelTickables. Used with FrameProfiler.getTickObjects.
+     * @param handle the object's handle
+     * @return the lane of the object
+     */
+    public static int laneOf(int handle) {
+        return handle & LANE_MASK;
+    }
+
+    /**
+     * Returns the handle of an object within its lane. Used to look up the object in FrameProfiler.getTickObjects.
+     * @param handle the object's handle
+     * @return the object's handle within its lane
+     */
+    public static int indexOf(int handle) {
+        return handle >>> LANE_BITS;
+    }
+
+    /**
+     * Returns the phase of the object with the given handle.
+     * @param handle the object's handle
+     * @return the phase of the object
+     */
+    public TickPhase phaseOf(int handle) {
+        return PHASES[laneOf(handle) >> 1];
+    }
+
+    /**
+     * Returns the number of objects in a phase.
+     * @param phase the phase
+     * @return the number of objects in the phase
+     */
+    public int size(TickPhase phase) {
+        return lanes[phase.ordinal() * 2].size() + lanes[phase.ordinal() * 2 + 1].size();
     }
 
     /**
@@ -0,0 +1,16 @@
+package rpgmain;
+
+/**
+ * Represents a phase of one game update. The TickHandler ticks every object in a phase before moving on to the next
+ * phase, in the order the phases are declared here.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public enum TickPhase {
+    INPUT, // reacts to what the user did since the last update
+    AI, // decides what computer-controlled characters do
+    MOVEMENT, // moves objects
+    COLLISION, // checks for and resolves collisions
+    BATTLE_RESOLUTION, // carries out battle actions
+    POST_UPDATE // anything that depends on the results of the other phases
+}
@@ -0,0 +1,46 @@
+package rpgmain;
+
+/**
+ * A LoopDriver that runs a GameLoop as fast as possible on the calling thread, without any windowing toolkit.
+ * Instead of reading the real clock, it moves a simulated clock forward by exactly one step every frame, so each frame
+ * runs exactly one tick and the results do not depend on how fast the machine is.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class UnthrottledLoopDriver implements LoopDriver {
+
+    private final long maxTicks; // how many ticks to run before returning, or a negative number to run until stopped
+    private volatile boolean running; // false once stop has been called
+
+    public UnthrottledLoopDriver(long maxTicks) {
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Runs frames of the loop until maxTicks ticks have run or stop is called. Blocks until then.
+     * @param loop the loop to drive
+     */
+    @Override
+    public void start(GameLoop loop) {
+        running = true;
+        long step = loop.getTimestep().getStepNanos();
+        long now = 0;
+        long ticks = 0;
+
+        // the first frame only starts the clock
+        loop.frame(now);
+        while (running && (maxTicks < 0 || ticks < maxTicks)) {
+            now += step;
+            ticks += loop.frame(now);
+        }
+        running = false;
+    }
+
+    /**
+     * Makes the running loop return after its current frame.
+     */
+    @Override
+    public void stop() {
+        running = false;
+    }
+}
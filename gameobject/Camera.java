@@ -0,0 +1,106 @@
+package gameobject;
+
+import javafx.scene.Node;
+
+/**
+ * Represents the view of the world shown on screen. Game objects keep fixed world coordinates, and the camera keeps
+ * one offset that turns world coordinates into screen coordinates. Scrolling only changes that offset, which is applied
+ * to the node holding the world as a single translation, so it costs the same no matter how big the world is.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class Camera {
+
+    private double offsetX; // what to add to a world x coordinate to get a screen x coordinate
+    private double offsetY; // what to add to a world y coordinate to get a screen y coordinate
+    private boolean moved; // true if the offset changed since it was last applied
+
+    public Camera() {
+        offsetX = 0;
+        offsetY = 0;
+        moved = true;
+    }
+
+    /**
+     * Moves the camera by the given amount in world coordinates. The world appears to move the opposite way.
+     * @param changeInX how far to move the camera in the x direction
+     * @param changeInY how far to move the camera in the y direction
+     */
+    public void move(double changeInX, double changeInY) {
+        if (changeInX != 0 || changeInY != 0) {
+            offsetX -= changeInX;
+            offsetY -= changeInY;
+            moved = true;
+        }
+    }
+
+    /**
+     * Translates a node holding world objects so that they appear where the camera is looking.
+     * @param world the node holding the world
+     */
+    public void apply(Node world) {
+        world.setTranslateX(offsetX);
+        world.setTranslateY(offsetY);
+        moved = false;
+    }
+
+    /**
+     * Returns true if the camera moved since it was last applied.
+     * @return true if the camera moved since it was last applied, false otherwise
+     */
+    public boolean hasMoved() {
+        return moved;
+    }
+
+    /**
+     * Converts a world x coordinate to a screen x coordinate.
+     * @param worldX the world x coordinate
+     * @return the screen x coordinate
+     */
+    public double toScreenX(double worldX) {
+        return worldX + offsetX;
+    }
+
+    /**
+     * Converts a world y coordinate to a screen y coordinate.
+     * @param worldY the world y coordinate
+     * @return the screen y coordinate
+     */
+    public double toScreenY(double worldY) {
+        return worldY + offsetY;
+    }
+
+    /**
+     * Converts a screen x coordinate to a world x coordinate.
+     * @param screenX the screen x coordinate
+     * @return the world x coordinate
+     */
+    public double toWorldX(double screenX) {
+        return screenX - offsetX;
+    }
+
+    /**
+     * Converts a screen y coordinate to a world y coordinate.
+     * @param screenY the screen y coordinate
+     * @return the world y coordinate
+     */
+    public double toWorldY(double screenY) {
+        return screenY - offsetY;
+    }
+
+    /**
+     * Returns what to add to a world x coordinate to get a screen x coordinate.
+     * @return the camera's x offset
+     */
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    /**
+     * Returns what to add to a world y coordinate to get a screen y coordinate.
+     * @return the camera's y offset
+     */
+    public double getOffsetY() {
+        return offsetY;
+    }
+}
@@ -0,0 +1,145 @@
+package gameobject;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import rpgmain.Renderable;
+
+/**
+ * Represents a way of drawing a Map onto a Canvas instead of adding a node for every tile to the scene graph. Each
+ * chunk is drawn once from a TileAtlas into a picture kept in a ChunkImageCache, and every frame the map is redrawn by
+ * copying the pictures of the visible chunks onto the canvas. The whole map is a single node, and a frame costs a few
+ * image copies no matter how many tiles are visible.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class CanvasMapRenderer implements Renderable {
+
+    private final Map map; // the map to draw
+    private final Canvas canvas; // the canvas to draw the map on
+    private final GraphicsContext gc; // the graphics context of canvas
+    private final Camera camera; // turns the tiles' world coordinates into canvas coordinates
+    private final TileAtlas atlas; // the pictures of every frame of every type of tile
+    private final ChunkImageCache cache; // the pictures of the chunks that have been drawn
+    private final int[] drawnFrames = new int[TileType.count()]; // the frame on the canvas of each type, by type id
+
+    public CanvasMapRenderer(Map map, Canvas canvas, Camera camera) {
+        this(map, canvas, camera, ChunkImageCache.DEFAULT_BUDGET_BYTES);
+    }
+
+    public CanvasMapRenderer(Map map, Canvas canvas, Camera camera, long cacheBudgetBytes) {
+        this.map = map;
+        this.canvas = canvas;
+        this.gc = canvas.getGraphicsContext2D();
+        this.camera = camera;
+        atlas = new TileAtlas(map.getTileWidth(), map.getTileHeight());
+        cache = new ChunkImageCache(atlas, cacheBudgetBytes);
+    }
+
+    /**
+     * Redraws the map. If the camera moved or the map's visible range or a tile changed, clears the canvas and draws
+     * the picture of every chunk that has tiles in the map's visible range and is on the canvas, then draws the current
+     * frame of the chunk's animated tiles over it. If only animation frames changed, redraws just the visible animated
+     * tiles whose frame is different from the one on the canvas. Chunks the map is still streaming are left out, and
+     * the map is marked dirty when they arrive. Clears the map's dirty flags.
+     */
+    @Override
+    public void render() {
+        boolean full = camera.hasMoved() || map.isViewDirty();
+        double canvasWidth = canvas.getWidth();
+        double canvasHeight = canvas.getHeight();
+        if (full) {
+            gc.clearRect(0, 0, canvasWidth, canvasHeight);
+        }
+        int chunkWidth = Chunk.SIZE * map.getTileWidth();
+        int chunkHeight = Chunk.SIZE * map.getTileHeight();
+
+        if (map.getRowEnd() > map.getRowStart() && map.getColEnd() > map.getColStart()) {
+            for (int chunkRow = map.getRowStart() / Chunk.SIZE; chunkRow <= (map.getRowEnd() - 1) / Chunk.SIZE;
+                 chunkRow++) {
+                for (int chunkCol = map.getColStart() / Chunk.SIZE; chunkCol <= (map.getColEnd() - 1) / Chunk.SIZE;
+                     chunkCol++) {
+                    double x = camera.toScreenX(chunkCol * chunkWidth);
+                    double y = camera.toScreenY(chunkRow * chunkHeight);
+                    // skip chunks that have visible tiles but are off the edge of the canvas
+                    if (x + chunkWidth <= 0 || y + chunkHeight <= 0 || x >= canvasWidth || y >= canvasHeight) {
+                        continue;
+                    }
+                    Chunk chunk = map.getReadyChunk(chunkRow, chunkCol);
+                    // a chunk still being streamed is drawn once it arrives, and one with no animated tiles has
+                    // nothing to patch
+                    if (chunk == null || (!full && chunk.getAnimatedCount() == 0)) {
+                        continue;
+                    }
+                    WritableImage image = cache.get(chunk);
+                    if (full) {
+                        gc.drawImage(image, x, y);
+                    }
+                    drawAnimatedTiles(chunk, image, x, y, canvasWidth, canvasHeight, full);
+                }
+            }
+        }
+        TileAnimator animator = map.getAnimator();
+        for (TileType type : animator.getAnimatedTypes()) {
+            drawnFrames[type.getId()] = animator.getFrame(type);
+        }
+        map.markRendered();
+    }
+
+    /**
+     * Draws the current frame of the animated tiles in a chunk that are on the canvas. If the rest of the chunk was
+     * not just drawn, only the tiles whose frame changed since the last render are drawn, each over the tile's part of
+     * the chunk's picture so nothing from the old frame shows through.
+     * @param chunk the chunk
+     * @param image the picture of the chunk
+     * @param chunkX where the chunk's left edge is on the canvas
+     * @param chunkY where the chunk's top edge is on the canvas
+     * @param canvasWidth the width of the canvas
+     * @param canvasHeight the height of the canvas
+     * @param all true to draw every animated tile, false to draw only those whose frame changed
+     */
+    private void drawAnimatedTiles(Chunk chunk, WritableImage image, double chunkX, double chunkY, double canvasWidth,
+                                   double canvasHeight, boolean all) {
+        int tileWidth = map.getTileWidth();
+        int tileHeight = map.getTileHeight();
+        TileAnimator animator = map.getAnimator();
+        for (int i = 0; i < chunk.getAnimatedCount(); i++) {
+            int row = chunk.getAnimatedRow(i);
+            int col = chunk.getAnimatedCol(i);
+            double x = chunkX + col * tileWidth;
+            double y = chunkY + row * tileHeight;
+            if (x + tileWidth <= 0 || y + tileHeight <= 0 || x >= canvasWidth || y >= canvasHeight) {
+                continue;
+            }
+            TileType type = chunk.getType(row, col);
+            int frame = animator.getFrame(type);
+            if (!all) {
+                if (frame == drawnFrames[type.getId()]) {
+                    continue;
+                }
+                gc.clearRect(x, y, tileWidth, tileHeight);
+                gc.drawImage(image, col * tileWidth, row * tileHeight, tileWidth, tileHeight, x, y, tileWidth,
+                        tileHeight);
+            }
+            atlas.draw(gc, type, frame, x, y);
+        }
+    }
+
+    /**
+     * Returns the cache holding the pictures of the chunks.
+     * @return the cache holding the pictures of the chunks.
+     */
+    public ChunkImageCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns true if the camera moved, or the map's visible range, a tile or a visible animation frame changed since
+     * the last render.
+     * @return true if the map needs to be redrawn, false otherwise
+     */
+    @Override
+    public boolean isDirty() {
+        return camera.hasMoved() || map.isDirty();
+    }
+}
@@ -0,0 +1,184 @@
+package gameobject;
+
+/**
+ * Represents a square block of tiles that is loaded and unloaded as a unit. Each tile is stored as the one-byte id of
+ * its TileType. Chunks on the right and bottom edges of a map are cut short if the map's size is not a multiple of
+ * SIZE.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class Chunk {
+
+    public static final int SIZE = 16; // the number of rows and columns of tiles in a full chunk
+
+    private final int chunkRow; // which row of chunks this chunk is in
+    private final int chunkCol; // which column of chunks this chunk is in
+    private final int rows; // the number of rows of tiles in this chunk
+    private final int cols; // the number of columns of tiles in this chunk
+    private final byte[] types; // the type id of every tile in this chunk, row by row
+    private int version; // how many times a tile in this chunk has been changed
+    private int[] animatedCells; // the index in types of every tile with an animated type
+
+    /**
+     * Reads the tiles of one chunk from a source.
+     * @param chunkRow which row of chunks to read
+     * @param chunkCol which column of chunks to read
+     * @param source where to read the tiles from
+     */
+    public Chunk(int chunkRow, int chunkCol, ChunkSource source) {
+        this.chunkRow = chunkRow;
+        this.chunkCol = chunkCol;
+        int firstRow = chunkRow * SIZE;
+        int firstCol = chunkCol * SIZE;
+        rows = Math.min(SIZE, source.getRows() - firstRow);
+        cols = Math.min(SIZE, source.getCols() - firstCol);
+
+        types = new byte[rows * cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                types[row * cols + col] = source.getType(firstRow + row, firstCol + col);
+            }
+        }
+        findAnimatedCells();
+    }
+
+    /**
+     * Finds every tile in this chunk with an animated type, so they can be redrawn without checking every tile.
+     */
+    private void findAnimatedCells() {
+        int count = 0;
+        for (byte type : types) {
+            if (TileType.get(type).isAnimated()) {
+                count++;
+            }
+        }
+        animatedCells = new int[count];
+        for (int cell = 0, next = 0; cell < types.length; cell++) {
+            if (TileType.get(types[cell]).isAnimated()) {
+                animatedCells[next++] = cell;
+            }
+        }
+    }
+
+    /**
+     * Returns the type of the tile at a row and column within this chunk.
+     * @param row the row within this chunk
+     * @param col the column within this chunk
+     * @return the type of the tile
+     */
+    public TileType getType(int row, int col) {
+        return TileType.get(types[row * cols + col]);
+    }
+
+    /**
+     * Changes the type of the tile at a row and column within this chunk.
+     * @param row the row within this chunk
+     * @param col the column within this chunk
+     * @param type the new type of the tile
+     */
+    public void setType(int row, int col, TileType type) {
+        if (types[row * cols + col] != type.getId()) {
+            boolean wasAnimated = TileType.get(types[row * cols + col]).isAnimated();
+            types[row * cols + col] = type.getId();
+            version++;
+            if (wasAnimated || type.isAnimated()) {
+                findAnimatedCells();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tiles in this chunk with an animated type.
+     * @return the number of animated tiles in this chunk.
+     */
+    public int getAnimatedCount() {
+        return animatedCells.length;
+    }
+
+    /**
+     * Returns the row within this chunk of one of its animated tiles.
+     * @param index an index from 0 to getAnimatedCount() - 1
+     * @return the row of the animated tile
+     */
+    public int getAnimatedRow(int index) {
+        return animatedCells[index] / cols;
+    }
+
+    /**
+     * Returns the column within this chunk of one of its animated tiles.
+     * @param index an index from 0 to getAnimatedCount() - 1
+     * @return the column of the animated tile
+     */
+    public int getAnimatedCol(int index) {
+        return animatedCells[index] % cols;
+    }
+
+    /**
+     * Returns how many times a tile in this chunk has been changed since it was read from its source. Anything drawn
+     * from this chunk is out of date if the version has changed since.
+     * @return how many times a tile in this chunk has been changed
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns true if a tile in this chunk has been changed since it was read from its source.
+     * @return true if this chunk has been changed, false otherwise
+     */
+    public boolean isModified() {
+        return version > 0;
+    }
+
+    /**
+     * Returns a single number identifying a chunk, used to key chunks in maps.
+     * @param chunkRow the row of the chunk
+     * @param chunkCol the column of the chunk
+     * @return the key of the chunk
+     */
+    public static long key(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns true if the tile at a row and column within this chunk is solid.
+     * @param row the row within this chunk
+     * @param col the column within this chunk
+     * @return true if the tile is solid, false otherwise
+     */
+    public boolean isSolid(int row, int col) {
+        return getType(row, col).isSolid();
+    }
+
+    /**
+     * Returns the number of rows of tiles in this chunk.
+     * @return the number of rows of tiles in this chunk.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of tiles in this chunk.
+     * @return the number of columns of tiles in this chunk.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Returns which row of chunks this chunk is in.
+     * @return which row of chunks this chunk is in.
+     */
+    public int getChunkRow() {
+        return chunkRow;
+    }
+
+    /**
+     * Returns which column of chunks this chunk is in.
+     * @return which column of chunks this chunk is in.
+     */
+    public int getChunkCol() {
+        return chunkCol;
+    }
+}
@@ -0,0 +1,156 @@
+package gameobject;
+
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Represents a cache of pictures of whole chunks. A chunk is drawn tile by tile from a TileAtlas the first time it is
+ * needed, and after that the same picture is reused until one of the chunk's tiles changes. The pictures use at most
+ * a set number of bytes; when a new picture would go over that, the least recently used pictures are thrown away.
+ * The budget should be big enough for every chunk that can be on screen at once, or pictures will be redrawn every
+ * frame.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class ChunkImageCache {
+
+    public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final TileAtlas atlas; // the pictures of every type of tile
+    private final long budgetBytes; // the most bytes the cached pictures can use
+    private long bytes; // the bytes the cached pictures use right now
+
+    // the cached pictures by Chunk.key, from least to most recently used
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ChunkImageCache(TileAtlas atlas, long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        this.atlas = atlas;
+        this.budgetBytes = budgetBytes;
+        bytes = 0;
+    }
+
+    /**
+     * Returns a picture of the chunk, drawing it first if it is not cached or the chunk changed since it was drawn.
+     * @param chunk the chunk
+     * @return a picture of the chunk
+     */
+    public WritableImage get(Chunk chunk) {
+        long key = Chunk.key(chunk.getChunkRow(), chunk.getChunkCol());
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == chunk.getVersion()) {
+            return entry.image;
+        }
+        if (entry != null) {
+            entries.remove(key);
+            bytes -= entry.bytes;
+        }
+
+        entry = new Entry(draw(chunk), chunk.getVersion());
+        entries.put(key, entry);
+        bytes += entry.bytes;
+        evict();
+        return entry.image;
+    }
+
+    /**
+     * Throws away the cached picture of a chunk, if there is one.
+     * @param chunkRow the row of the chunk
+     * @param chunkCol the column of the chunk
+     */
+    public void invalidate(int chunkRow, int chunkCol) {
+        Entry entry = entries.remove(Chunk.key(chunkRow, chunkCol));
+        if (entry != null) {
+            bytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Throws away every cached picture.
+     */
+    public void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the number of cached pictures.
+     * @return the number of cached pictures.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the bytes the cached pictures use right now.
+     * @return the bytes the cached pictures use right now.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the most bytes the cached pictures can use.
+     * @return the most bytes the cached pictures can use.
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Draws every tile of a chunk that is not clear or animated into a new picture. Animated tiles change too often to
+     * be cached, so they are left clear and drawn over the picture every frame.
+     * @param chunk the chunk to draw
+     * @return the picture of the chunk
+     */
+    private WritableImage draw(Chunk chunk) {
+        int tileWidth = atlas.getTileWidth();
+        int tileHeight = atlas.getTileHeight();
+        WritableImage image = new WritableImage(chunk.getCols() * tileWidth, chunk.getRows() * tileHeight);
+        PixelWriter writer = image.getPixelWriter();
+        for (int row = 0; row < chunk.getRows(); row++) {
+            for (int col = 0; col < chunk.getCols(); col++) {
+                TileType type = chunk.getType(row, col);
+                if (!type.isBlank() && !type.isAnimated()) {
+                    atlas.copyTo(writer, type, col * tileWidth, row * tileHeight);
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Throws away the least recently used pictures until the cache is within its budget. The most recently used
+     * picture is always kept, even if it alone is over the budget.
+     */
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (bytes > budgetBytes && entries.size() > 1) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            bytes -= eldest.bytes;
+        }
+    }
+
+    /**
+     * Represents one cached picture and the version of the chunk it was drawn from.
+     */
+    private static class Entry {
+
+        private final WritableImage image;
+        private final int version;
+        private final long bytes;
+
+        private Entry(WritableImage image, int version) {
+            this.image = image;
+            this.version = version;
+            this.bytes = (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package gameobject;
+
+/**
+ * Represents where a Map gets the layout of its tiles from. A Map only asks for the cells of the chunks it loads, so a
+ * source does not have to hold the whole world in memory.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public interface ChunkSource {
+
+    /**
+     * Returns the number of rows of tiles in the world.
+     * @return the number of rows of tiles in the world.
+     */
+    int getRows();
+
+    /**
+     * Returns the number of columns of tiles in the world.
+     * @return the number of columns of tiles in the world.
+     */
+    int getCols();
+
+    /**
+     * Returns the layout char of one cell, where '1' is a solid tile and '0' is an open tile.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the layout char of the cell
+     */
+    char getCell(int row, int col);
+
+    /**
+     * Returns the id of the TileType of one cell. By default this is worked out from the cell's layout char.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the type id of the cell
+     */
+    default byte getType(int row, int col) {
+        return TileType.fromCell(getCell(row, col)).getId();
+    }
+}
@@ -0,0 +1,75 @@
+package gameobject;
+
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Represents a service that reads chunks from a ChunkSource on a background thread, so reading a chunk never holds up
+ * a frame. Chunks are requested from the game thread, read in the background, and handed back to the game thread
+ * when it asks for them at the start of a tick.
+ *
+ * request and poll must only be called from the game thread; only reading the chunks happens in the background.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class ChunkStreamer {
+
+    private final ChunkSource source; // where chunks are read from
+    private final ExecutorService executor; // the background thread that reads chunks
+    private final Queue<Chunk> ready = new ConcurrentLinkedQueue<>(); // chunks that were read but not handed back yet
+    private final HashSet<Long> requested = new HashSet<>(); // the keys of chunks requested but not handed back yet
+
+    public ChunkStreamer(ChunkSource source) {
+        this.source = source;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chunk-streamer");
+            // the streamer must not keep the game running after the window is closed
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Asks for a chunk to be read in the background. Does nothing if the chunk was already requested and has not been
+     * handed back yet.
+     * @param chunkRow the row of the chunk
+     * @param chunkCol the column of the chunk
+     */
+    public void request(int chunkRow, int chunkCol) {
+        if (requested.add(Chunk.key(chunkRow, chunkCol))) {
+            executor.execute(() -> ready.add(new Chunk(chunkRow, chunkCol, source)));
+        }
+    }
+
+    /**
+     * Returns true if a chunk was requested and has not been handed back yet.
+     * @param chunkRow the row of the chunk
+     * @param chunkCol the column of the chunk
+     * @return true if the chunk is still on its way, false otherwise
+     */
+    public boolean isRequested(int chunkRow, int chunkCol) {
+        return requested.contains(Chunk.key(chunkRow, chunkCol));
+    }
+
+    /**
+     * Hands back one chunk that has finished being read, or returns null if none have.
+     * @return a chunk that has been read, or null
+     */
+    public Chunk poll() {
+        Chunk chunk = ready.poll();
+        if (chunk != null) {
+            requested.remove(Chunk.key(chunk.getChunkRow(), chunk.getChunkCol()));
+        }
+        return chunk;
+    }
+
+    /**
+     * Stops the background thread. Chunks that were requested but not read yet are never read.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,196 @@
+package gameobject;
+
+import java.util.Arrays;
+
+/**
+ * Represents collision queries against the solid tiles of a Map. A box in world coordinates is turned into the range
+ * of cells it covers, and only those cells are checked, so a query costs the same no matter how big the map is. Boxes
+ * that only touch the edge of a solid tile do not overlap it. Everything outside the map counts as solid.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class CollisionGrid {
+
+    private static final int RECENT_SIDE = 16; // recent chunks are kept by row and column modulo this
+    private static final int RECENT_CHUNKS = RECENT_SIDE * RECENT_SIDE;
+
+    private final Map map; // the map whose tiles are checked
+    private final int tileWidth; // the width of one tile in pixels
+    private final int tileHeight; // the height of one tile in pixels
+    private final Chunk[] recentChunks = new Chunk[RECENT_CHUNKS]; // chunks looked at lately, by row and column
+    private int recentUnloads; // the map's unload count when recentChunks was last emptied
+
+    public CollisionGrid(Map map) {
+        this.map = map;
+        this.tileWidth = map.getTileWidth();
+        this.tileHeight = map.getTileHeight();
+    }
+
+    /**
+     * Returns true if a box overlaps any solid tile or goes outside the map.
+     * @param x the x position of the box's top left corner
+     * @param y the y position of the box's top left corner
+     * @param width the width of the box
+     * @param height the height of the box
+     * @return true if the box overlaps a solid tile, false otherwise
+     */
+    public boolean overlapsSolid(double x, double y, double width, double height) {
+        int firstCol = colOf(x);
+        int firstRow = rowOf(y);
+        // a box ending exactly on a tile's edge does not reach into that tile
+        int lastCol = lastCellOf(x + width, tileWidth);
+        int lastRow = lastCellOf(y + height, tileHeight);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (isSolid(row, col)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sweeps a box along its motion and records in out the first solid tile it hits, if any, so a box moving further
+     * than a tile in one tick cannot pass through a wall. Only the cells the box covers on its way are checked. A box
+     * that already overlaps a solid tile is not stopped by it, so it can move out.
+     * @param x the x position of the box's top left corner
+     * @param y the y position of the box's top left corner
+     * @param width the width of the box
+     * @param height the height of the box
+     * @param changeInX how far the box moves in the x direction
+     * @param changeInY how far the box moves in the y direction
+     * @param out the sweep to record the result in
+     * @return true if the box hits a solid tile, false otherwise
+     */
+    public boolean sweep(double x, double y, double width, double height, double changeInX, double changeInY,
+                         Sweep out) {
+        out.reset(x, y, changeInX, changeInY);
+        int firstCol = colOf(Math.min(x, x + changeInX));
+        int firstRow = rowOf(Math.min(y, y + changeInY));
+        int lastCol = lastCellOf(Math.max(x, x + changeInX) + width, tileWidth);
+        int lastRow = lastCellOf(Math.max(y, y + changeInY) + height, tileHeight);
+        // the neighbour on the side the box comes from, which hides the side of a tile it is next to
+        int fromCol = (changeInX > 0) ? -1 : 1;
+        int fromRow = (changeInY > 0) ? -1 : 1;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (isSolid(row, col)) {
+                    out.against(x, y, width, height, changeInX, changeInY,
+                            col * tileWidth, row * tileHeight, tileWidth, tileHeight,
+                            !isSolid(row, col + fromCol), !isSolid(row + fromRow, col), false, -1);
+                }
+            }
+        }
+        return out.isHit();
+    }
+
+    /**
+     * Moves a box along its motion, sliding along any solid tiles it hits instead of stopping: when the box hits a
+     * side, the rest of the motion into that side is dropped and the rest along it is swept again. Afterwards the
+     * position of out is where the box ends up, and the rest of out describes the last sweep.
+     * @param x the x position of the box's top left corner
+     * @param y the y position of the box's top left corner
+     * @param width the width of the box
+     * @param height the height of the box
+     * @param changeInX how far the box moves in the x direction
+     * @param changeInY how far the box moves in the y direction
+     * @param out the sweep to record the result in
+     * @return true if the box hit a solid tile on the way, false otherwise
+     */
+    public boolean slide(double x, double y, double width, double height, double changeInX, double changeInY,
+                         Sweep out) {
+        boolean hitAny = false;
+        // a box can only be stopped once in each direction, so two hits are enough to finish the motion
+        for (int i = 0; i < 2; i++) {
+            if (!sweep(x, y, width, height, changeInX, changeInY, out)) {
+                break;
+            }
+            hitAny = true;
+            double remaining = 1 - out.getTime();
+            x = out.getX();
+            y = out.getY();
+            changeInX = (out.getNormalX() != 0) ? 0 : changeInX * remaining;
+            changeInY = (out.getNormalY() != 0) ? 0 : changeInY * remaining;
+            if (changeInX == 0 && changeInY == 0) {
+                break;
+            }
+        }
+        return hitAny;
+    }
+
+    /**
+     * Returns true if the cell at a row and column is solid. Cells outside the map are solid. The chunks looked at
+     * lately are remembered, so looking at cells near them does not have to find the chunk in the map again. A cell in
+     * a chunk the map is still streaming is read from the map's source, so a collision never waits for a chunk.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return true if the cell is solid, false otherwise
+     */
+    public boolean isSolid(int row, int col) {
+        if (row < 0 || row >= map.getRows() || col < 0 || col >= map.getCols()) {
+            return true;
+        }
+        int chunkRow = row / Chunk.SIZE;
+        int chunkCol = col / Chunk.SIZE;
+        // a chunk that was unloaded may have been loaded again as a different object, so start over after unloads
+        if (recentUnloads != map.getUnloadCount()) {
+            Arrays.fill(recentChunks, null);
+            recentUnloads = map.getUnloadCount();
+        }
+        int slot = (chunkRow % RECENT_SIDE) * RECENT_SIDE + chunkCol % RECENT_SIDE;
+        Chunk chunk = recentChunks[slot];
+        if (chunk == null || chunk.getChunkRow() != chunkRow || chunk.getChunkCol() != chunkCol) {
+            chunk = map.getReadyChunk(chunkRow, chunkCol);
+            if (chunk == null) {
+                return map.peekType(row, col).isSolid();
+            }
+            recentChunks[slot] = chunk;
+        }
+        return chunk.isSolid(row % Chunk.SIZE, col % Chunk.SIZE);
+    }
+
+    /**
+     * Returns the column of the cell holding a world x coordinate.
+     * @param x the x coordinate
+     * @return the column of the cell
+     */
+    public int colOf(double x) {
+        return (int) Math.floor(x / tileWidth);
+    }
+
+    /**
+     * Returns the row of the cell holding a world y coordinate.
+     * @param y the y coordinate
+     * @return the row of the cell
+     */
+    public int rowOf(double y) {
+        return (int) Math.floor(y / tileHeight);
+    }
+
+    /**
+     * Returns the width of one cell in pixels.
+     * @return the width of one cell in pixels.
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Returns the height of one cell in pixels.
+     * @return the height of one cell in pixels.
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Returns the last cell a box reaches into, given where the box ends.
+     * @param end the right or bottom edge of the box
+     * @param size the width or height of a cell
+     * @return the last column or row the box reaches into
+     */
+    private static int lastCellOf(double end, int size) {
+        return (int) Math.ceil(end / size) - 1;
+    }
+}
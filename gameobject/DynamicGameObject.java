@@ -4,7 +4,10 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 
 /**
- * Represents a game object that has an x and y coordinates and can move on a map.
+ * Represents a game object that has an x and y coordinates and can move on a map. Its position is kept in this object
+ * unless it is attached to an EntityStore, which then holds the position and moves the sprite when synced. The map
+ * sprite is only made the first time it is asked for, so objects that are never shown, such as those of a game run
+ * without a window, make no JavaFX nodes.
  * @Author Tony Comanzo
  * Version 1.0
  */
@@ -12,11 +15,21 @@ public abstract class DynamicGameObject {
 
     private double changeInX; // represents how much to translate in the x direction on update
     private double changeInY; // represents how much to translate in the y direction on update
-    private Rectangle mapSprite; // represents how this game object looks on an in-game map
+    private double x; // the top left x coordinate while this object is not in an entity store
+    private double y; // the top left y coordinate while this object is not in an entity store
+    private double width; // the width of this object
+    private double height; // the height of this object
+    private Color color; // the color of this object's map sprite
+    private Rectangle mapSprite; // represents how this game object looks on an in-game map, or null until asked for
+    private EntityStore store; // holds this object's position and translation while it is in one, otherwise null
+    private int entityId; // this object's id in store
 
     public DynamicGameObject(double x, double y, double width, double height, double changeInX, double changeInY, Color color) {
-        mapSprite = new Rectangle(x, y, width, height);
-        mapSprite.setFill(color);
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.color = color;
         this.changeInX = changeInX;
         this.changeInY = changeInY;
     }
@@ -26,6 +39,9 @@ public abstract class DynamicGameObject {
      * @return how much to translate this object in the x direction
      */
     public double getChangeInX() {
+        if (store != null) {
+            return store.getVelocityX(entityId);
+        }
         return changeInX;
     }
 
@@ -34,6 +50,9 @@ public abstract class DynamicGameObject {
      * @return how much to translate this object in the y direction
      */
     public double getChangeInY() {
+        if (store != null) {
+            return store.getVelocityY(entityId);
+        }
         return changeInY;
     }
 
@@ -43,6 +62,9 @@ public abstract class DynamicGameObject {
      */
     public void setChangeInX(int changeInX) {
         this.changeInX = changeInX;
+        if (store != null) {
+            store.setVelocity(entityId, changeInX, store.getVelocityY(entityId));
+        }
     }
 
     /**
@@ -51,6 +73,9 @@ public abstract class DynamicGameObject {
      */
     public void setChangeInY(int changeInY) {
         this.changeInY = changeInY;
+        if (store != null) {
+            store.setVelocity(entityId, store.getVelocityX(entityId), changeInY);
+        }
     }
 
     /**
@@ -58,7 +83,10 @@ public abstract class DynamicGameObject {
      * @return the top left x coordinate
      */
     public double getX() {
-        return mapSprite.getX();
+        if (store != null) {
+            return store.getX(entityId);
+        }
+        return x;
     }
 
     /**
@@ -66,7 +94,10 @@ public abstract class DynamicGameObject {
      * @return the top left y coordinate
      */
     public double getY() {
-        return mapSprite.getY();
+        if (store != null) {
+            return store.getY(entityId);
+        }
+        return y;
     }
 
     /**
@@ -74,7 +105,14 @@ public abstract class DynamicGameObject {
      * @param value the top left x coordinate
      */
     public void setX(double value) {
-        mapSprite.setX(value);
+        if (store != null) {
+            store.setPosition(entityId, value, store.getY(entityId));
+            return;
+        }
+        x = value;
+        if (mapSprite != null) {
+            mapSprite.setX(value);
+        }
     }
 
     /**
@@ -82,14 +120,80 @@ public abstract class DynamicGameObject {
      * @param value the top left y coordinate
      */
     public void setY(double value) {
-        mapSprite.setY(value);
+        if (store != null) {
+            store.setPosition(entityId, store.getX(entityId), value);
+            return;
+        }
+        y = value;
+        if (mapSprite != null) {
+            mapSprite.setY(value);
+        }
     }
 
     /**
-     * Returns a Rectangle representing how this object appears drawn
+     * Returns the width of this object
+     * @return the width of this object
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of this object
+     * @return the height of this object
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the color this object is drawn in
+     * @return the color this object is drawn in
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * Moves this object's position and translation into an entity store, which moves it every step from then on. The
+     * map sprite only shows the new position after the store is synced.
+     * @param store the store to move this object into
+     * @param flags the entity's flags, such as EntityStore.COLLIDES_WITH_TILES
+     * @return this object's id in the store
+     */
+    public int attach(EntityStore store, int flags) {
+        if (this.store != null) {
+            throw new IllegalStateException("this object is already in an entity store");
+        }
+        entityId = store.create(x, y, width, height, changeInX, changeInY, flags);
+        if (mapSprite != null) {
+            store.setSprite(entityId, mapSprite);
+        }
+        this.store = store;
+        return entityId;
+    }
+
+    /**
+     * Returns this object's id in its entity store, or -1 if it is not in one.
+     * @return this object's id in its entity store.
+     */
+    public int getEntityId() {
+        return (store == null) ? -1 : entityId;
+    }
+
+    /**
+     * Returns a Rectangle representing how this object appears drawn, making it at this object's position the first
+     * time
      * @return a Rectangle representing how this object appears drawn
      */
     public Rectangle getMapSprite() {
+        if (mapSprite == null) {
+            mapSprite = new Rectangle(getX(), getY(), width, height);
+            mapSprite.setFill(color);
+            if (store != null) {
+                store.setSprite(entityId, mapSprite);
+            }
+        }
         return mapSprite;
     }
 }
@@ -0,0 +1,369 @@
+package gameobject;
+
+import javafx.scene.shape.Rectangle;
+
+import java.util.Arrays;
+
+/**
+ * Represents the positions, velocities, sizes and flags of many moving entities, held in parallel arrays instead of in
+ * JavaFX nodes. Entities are identified by int ids, and their data is kept packed at the front of the arrays, so
+ * moving every entity is one loop over plain numbers that can run off the JavaFX thread. An entity can have a sprite,
+ * which is only moved to match its entity when sync is called at render time.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class EntityStore {
+
+    public static final int COLLIDES_WITH_TILES = 1; // flag for an entity that slides along solid tiles
+
+    private static final int NEEDS_SYNC = 1 << 30; // flag for an entity that moved since its sprite was last moved
+    private static final int LISTED = 1 << 29; // flag for an entity that is in the list of moved entities
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] x; // the x position of each slot's entity
+    private double[] y; // the y position of each slot's entity
+    private double[] velocityX; // how far each slot's entity moves in the x direction every step
+    private double[] velocityY; // how far each slot's entity moves in the y direction every step
+    private double[] width; // the width of each slot's entity
+    private double[] height; // the height of each slot's entity
+    private int[] flags; // the flags of each slot's entity
+    private Rectangle[] sprites; // the sprite of each slot's entity, or null if it has none
+    private int[] ids; // the id of each slot's entity
+    private int count; // the number of entities, which fill the first count slots
+
+    private int[] slotOf; // the slot of each id, or -1 if the id is free
+    private int idCount; // the number of ids ever given out
+    private int[] freeIds; // a stack of ids that can be given out again
+    private int freeCount; // the number of ids in freeIds
+
+    private int[] moved; // the ids of the entities that moved since the list was last cleared
+    private int movedCount; // the number of ids in moved
+    private boolean needsSync; // true if any entity moved since sync was last called
+
+    public EntityStore() {
+        x = new double[INITIAL_CAPACITY];
+        y = new double[INITIAL_CAPACITY];
+        velocityX = new double[INITIAL_CAPACITY];
+        velocityY = new double[INITIAL_CAPACITY];
+        width = new double[INITIAL_CAPACITY];
+        height = new double[INITIAL_CAPACITY];
+        flags = new int[INITIAL_CAPACITY];
+        sprites = new Rectangle[INITIAL_CAPACITY];
+        ids = new int[INITIAL_CAPACITY];
+        slotOf = new int[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+        moved = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds an entity.
+     * @param x the x position of the entity's top left corner
+     * @param y the y position of the entity's top left corner
+     * @param width the width of the entity
+     * @param height the height of the entity
+     * @param velocityX how far the entity moves in the x direction every step
+     * @param velocityY how far the entity moves in the y direction every step
+     * @param flags the entity's flags, such as COLLIDES_WITH_TILES
+     * @return the id of the entity
+     */
+    public int create(double x, double y, double width, double height, double velocityX, double velocityY,
+                      int flags) {
+        if ((flags & (NEEDS_SYNC | LISTED)) != 0) {
+            throw new IllegalArgumentException("flags must not use the store's own bits");
+        }
+        if (count == this.x.length) {
+            grow();
+        }
+        int id = allocateId();
+        int slot = count++;
+        slotOf[id] = slot;
+        ids[slot] = id;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        this.velocityX[slot] = velocityX;
+        this.velocityY[slot] = velocityY;
+        this.flags[slot] = flags;
+        sprites[slot] = null;
+        return id;
+    }
+
+    /**
+     * Removes an entity by moving the last entity into its slot. Its id may be given to another entity later.
+     * @param id the id of the entity
+     */
+    public void destroy(int id) {
+        int slot = slotOf(id);
+        if ((flags[slot] & LISTED) != 0) {
+            for (int i = 0; i < movedCount; i++) {
+                if (moved[i] == id) {
+                    moved[i] = moved[--movedCount];
+                    break;
+                }
+            }
+        }
+        int last = --count;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            velocityX[slot] = velocityX[last];
+            velocityY[slot] = velocityY[last];
+            flags[slot] = flags[last];
+            sprites[slot] = sprites[last];
+            ids[slot] = ids[last];
+            slotOf[ids[slot]] = slot;
+        }
+        sprites[last] = null;
+        slotOf[id] = -1;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Moves every entity by its velocity. Entities with the COLLIDES_WITH_TILES flag slide along the solid tiles of
+     * the grid instead of passing through them. Entities that change position are added to the list of moved entities.
+     * @param grid the solid tiles to collide with
+     * @param sweep a sweep to reuse for every entity
+     */
+    public void step(CollisionGrid grid, Sweep sweep) {
+        for (int slot = 0; slot < count; slot++) {
+            double changeInX = velocityX[slot];
+            double changeInY = velocityY[slot];
+            if (changeInX == 0 && changeInY == 0) {
+                continue;
+            }
+            double nextX;
+            double nextY;
+            if ((flags[slot] & COLLIDES_WITH_TILES) != 0) {
+                grid.slide(x[slot], y[slot], width[slot], height[slot], changeInX, changeInY, sweep);
+                nextX = sweep.getX();
+                nextY = sweep.getY();
+            } else {
+                nextX = x[slot] + changeInX;
+                nextY = y[slot] + changeInY;
+            }
+            if (nextX != x[slot] || nextY != y[slot]) {
+                x[slot] = nextX;
+                y[slot] = nextY;
+                markMoved(slot);
+            }
+        }
+    }
+
+    /**
+     * Moves the sprite of every entity that moved since the last sync to the entity's position. This is the only place
+     * sprites are changed, so it should be called on the JavaFX thread when rendering.
+     */
+    public void sync() {
+        if (!needsSync) {
+            return;
+        }
+        for (int slot = 0; slot < count; slot++) {
+            if ((flags[slot] & NEEDS_SYNC) != 0) {
+                flags[slot] &= ~NEEDS_SYNC;
+                Rectangle sprite = sprites[slot];
+                if (sprite != null) {
+                    sprite.setX(x[slot]);
+                    sprite.setY(y[slot]);
+                }
+            }
+        }
+        needsSync = false;
+    }
+
+    /**
+     * Returns true if any entity moved since sync was last called.
+     * @return true if the sprites need to be synced, false otherwise
+     */
+    public boolean needsSync() {
+        return needsSync;
+    }
+
+    /**
+     * Returns the number of entities that moved since the list of moved entities was last cleared.
+     * @return the number of entities that moved.
+     */
+    public int getMovedCount() {
+        return movedCount;
+    }
+
+    /**
+     * Returns the id of one of the entities that moved since the list of moved entities was last cleared.
+     * @param i which moved entity, from 0 to getMovedCount() - 1
+     * @return the id of the entity
+     */
+    public int getMovedId(int i) {
+        if (i < 0 || i >= movedCount) {
+            throw new IllegalArgumentException("moved entity " + i + " is out of bounds");
+        }
+        return moved[i];
+    }
+
+    /**
+     * Empties the list of moved entities, once whatever follows them has been updated.
+     */
+    public void clearMoved() {
+        for (int i = 0; i < movedCount; i++) {
+            flags[slotOf[moved[i]]] &= ~LISTED;
+        }
+        movedCount = 0;
+    }
+
+    /**
+     * Mutates the position of an entity.
+     * @param id the id of the entity
+     * @param x the x position of the entity's top left corner
+     * @param y the y position of the entity's top left corner
+     */
+    public void setPosition(int id, double x, double y) {
+        int slot = slotOf(id);
+        if (this.x[slot] != x || this.y[slot] != y) {
+            this.x[slot] = x;
+            this.y[slot] = y;
+            markMoved(slot);
+        }
+    }
+
+    /**
+     * Mutates the velocity of an entity.
+     * @param id the id of the entity
+     * @param velocityX how far the entity moves in the x direction every step
+     * @param velocityY how far the entity moves in the y direction every step
+     */
+    public void setVelocity(int id, double velocityX, double velocityY) {
+        int slot = slotOf(id);
+        this.velocityX[slot] = velocityX;
+        this.velocityY[slot] = velocityY;
+    }
+
+    /**
+     * Sets the sprite that is moved to match an entity when sync is called, and moves it there now.
+     * @param id the id of the entity
+     * @param sprite the sprite, or null to have none
+     */
+    public void setSprite(int id, Rectangle sprite) {
+        int slot = slotOf(id);
+        sprites[slot] = sprite;
+        if (sprite != null) {
+            sprite.setX(x[slot]);
+            sprite.setY(y[slot]);
+        }
+    }
+
+    /**
+     * Returns the x position of an entity's top left corner.
+     * @param id the id of the entity
+     * @return the x position of the entity.
+     */
+    public double getX(int id) {
+        return x[slotOf(id)];
+    }
+
+    /**
+     * Returns the y position of an entity's top left corner.
+     * @param id the id of the entity
+     * @return the y position of the entity.
+     */
+    public double getY(int id) {
+        return y[slotOf(id)];
+    }
+
+    /**
+     * Returns how far an entity moves in the x direction every step.
+     * @param id the id of the entity
+     * @return the x velocity of the entity.
+     */
+    public double getVelocityX(int id) {
+        return velocityX[slotOf(id)];
+    }
+
+    /**
+     * Returns how far an entity moves in the y direction every step.
+     * @param id the id of the entity
+     * @return the y velocity of the entity.
+     */
+    public double getVelocityY(int id) {
+        return velocityY[slotOf(id)];
+    }
+
+    /**
+     * Returns the width of an entity.
+     * @param id the id of the entity
+     * @return the width of the entity.
+     */
+    public double getWidth(int id) {
+        return width[slotOf(id)];
+    }
+
+    /**
+     * Returns the height of an entity.
+     * @param id the id of the entity
+     * @return the height of the entity.
+     */
+    public double getHeight(int id) {
+        return height[slotOf(id)];
+    }
+
+    /**
+     * Returns the number of entities in the store.
+     * @return the number of entities in the store.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Flags an entity's sprite as needing to be synced and adds the entity to the list of moved entities if it is not
+     * in it already.
+     */
+    private void markMoved(int slot) {
+        flags[slot] |= NEEDS_SYNC;
+        needsSync = true;
+        if ((flags[slot] & LISTED) == 0) {
+            flags[slot] |= LISTED;
+            moved[movedCount++] = ids[slot];
+        }
+    }
+
+    private int slotOf(int id) {
+        if (id < 0 || id >= idCount || slotOf[id] < 0) {
+            throw new IllegalArgumentException("entity " + id + " does not exist");
+        }
+        return slotOf[id];
+    }
+
+    /**
+     * Returns a recycled id if there is one, otherwise a new id, growing the id array if needed.
+     */
+    private int allocateId() {
+        if (freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        if (idCount == slotOf.length) {
+            slotOf = Arrays.copyOf(slotOf, idCount * 2);
+        }
+        return idCount++;
+    }
+
+    /**
+     * Doubles the number of slots. The moved list can hold every entity, so it grows with them.
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        sprites = Arrays.copyOf(sprites, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        moved = Arrays.copyOf(moved, capacity);
+    }
+}
@@ -0,0 +1,33 @@
+package gameobject;
+
+/**
+ * Represents a ChunkSource backed by a 2D array of chars, such as Map's default layout.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class LayoutChunkSource implements ChunkSource {
+
+    private final char[][] layout; // the layout of the world, one char per tile
+
+    public LayoutChunkSource(char[][] layout) {
+        if (layout.length == 0 || layout[0].length == 0) {
+            throw new IllegalArgumentException("layout must have at least one row and one column");
+        }
+        this.layout = layout;
+    }
+
+    @Override
+    public int getRows() {
+        return layout.length;
+    }
+
+    @Override
+    public int getCols() {
+        return layout[0].length;
+    }
+
+    @Override
+    public char getCell(int row, int col) {
+        return layout[row][col];
+    }
+}
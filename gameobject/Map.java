@@ -1,101 +1,387 @@
 package gameobject;
 
 import javafx.scene.Group;
-import javafx.scene.paint.Color;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.shape.Rectangle;
 import rpgmain.Renderable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
 /**
- * Represents a tile map. A tile map represents where the user can move the player.
+ * Represents a tile map. A tile map represents where the user can move the player. The tiles are split into chunks that
+ * are only created when they are needed, and chunks far from the player are thrown away, so memory stays bounded no
+ * matter how big the world is. Each tile is stored as the one-byte id of its TileType.
  * @Author Tony Comanzo ICSI 311
  * Version 1.0
  */
 public class Map implements Renderable {
 
-    private Tile[][] tileMap; // a 2D array holding all the Tiles in this map. Represents the actual map.
+    private static final int DEFAULT_LOAD_RADIUS = 1;
+
+    private ChunkSource source; // where the layout of the tiles is read from
+    private HashMap<Long, Chunk> chunks; // the loaded chunks, keyed by Chunk.key
+    private int rows; // the number of rows of tiles in this map
+    private int cols; // the number of columns of tiles in this map
+    private int tileWidth; // the width of one tile in pixels
+    private int tileHeight; // the height of one tile in pixels
+    private int loadRadius; // how many chunks around the player's chunk are kept loaded
+    private int unloadCount; // the number of chunks ever unloaded, so a chunk held onto elsewhere can be checked
+    private int playerChunkRow; // the row of the chunk the player was in at the last tick, or -1 before the first
+    private int playerChunkCol; // the column of the chunk the player was in at the last tick, or -1 before the first
+    private ChunkStreamer streamer; // reads chunks in the background, or null to read them when they are needed
+    private int prefetchDistance; // how many chunks past the loaded ones to read ahead in the player's direction
+    private final List<TileListener> tileListeners = new ArrayList<>(); // told when a tile changes type
     private int height; // the height of this map in pixels
     private int width; // the width of this map in pixels
     private int rowStart; // an index representing which row to start rendering tiles
     private int colStart; // an index representing which column to start rendering tiles
     private int rowEnd; // an index representing which row to stop rendering tiles
     private int colEnd; // an index representing which column to stop rendering tiles
-    private Group parent; // the root node of all the tiles on the map
+    private Group parent; // the root node of all the tiles on the map, holding one Group per visible row
+    private boolean dirty; // true if the visible range or a tile changed since the last render
+    private boolean animationDirty; // true if a visible animated tile changed frame since the last render
+    private int renderedRowStart; // the first row of tiles currently in parent
+    private int renderedColStart; // the first column of tiles currently in parent
+    private int renderedRowEnd; // the row after the last row of tiles currently in parent
+    private int renderedColEnd; // the column after the last column of tiles currently in parent
+    private final TileAnimator animator = new TileAnimator(); // decides which frame animated tiles are showing
+    // the nodes in parent of each animated type, so their fill can be changed when the frame changes
+    private final EnumMap<TileType, HashSet<Rectangle>> animatedNodes = new EnumMap<>(TileType.class);
+    private final int[] appliedFrames = new int[TileType.count()]; // the frame the animated nodes show, by type id
+    private final List<Node> entering = new ArrayList<>(); // reused list of the nodes of tiles entering the view
+
+    // 2D array of chars representing the default map. 1's equal a solid tile, 0's equal an open tile.
+    private static final char[][] DEFAULT_LAYOUT = {
+            {'1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '1', '0', '0', '0', '0', '0', '0', '0', '0', '1', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '1', '0', '0', '0', '0', '0', '0', '0', '0', '1', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
+            {'1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1'}
+    };
 
     public Map(int height, int width, Group parent) {
+        this(height, width, parent, DEFAULT_LAYOUT);
+    }
+
+    public Map(int height, int width, Group parent, char[][] layout) {
+        this(height, width, parent, new LayoutChunkSource(layout));
+    }
+
+    public Map(int height, int width, Group parent, ChunkSource source) {
         this.height = height;
         this.width = width;
         rowStart = 0;
         colStart = 0;
-        rowEnd = 8;
-        colEnd = 10;
         this.parent = parent;
-        init();
-    }
-
-    /**
-     * Initializes this Map by initializing all the tiles. The tiles are defined by a predefined layout.
-     */
-    private void init() {
-        // 2D array of chars representing the map. 1's equal a solid tile, 0's equal an open tile.
-        char[][] textMap = {
-                {'1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '1', '0', '0', '0', '0', '0', '0', '0', '0', '1', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '1', '0', '0', '0', '0', '0', '0', '0', '0', '1', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '1'},
-                {'1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1', '1'}
-        };
-
+        dirty = true;
+        this.source = source;
+        rows = source.getRows();
+        cols = source.getCols();
+        rowEnd = Math.min(8, rows);
+        colEnd = Math.min(10, cols);
         // get the height and width of the tiles by dividing the height and width of this Map by the number of
-        // rows and columns in the predefined layout.
-        int tileWidth = this.width / textMap[0].length;
-        int tileHeight = this.height / textMap.length;
-
-        // initialize tileMap
-        tileMap = new Tile[textMap.length][textMap[0].length];
-        for (int row = 0; row < textMap.length; row++) {
-            for (int col = 0; col < textMap[0].length; col++) {
-                // make a solid tile and color it silver if this element in tileMap is a '1'
-                if (textMap[row][col] == '1') {
-                    tileMap[row][col] = new Tile(col * tileWidth, row * tileHeight, tileHeight, tileWidth, true, Color.SILVER);
+        // rows and columns in the layout.
+        tileWidth = width / cols;
+        tileHeight = height / rows;
+        chunks = new HashMap<>();
+        loadRadius = DEFAULT_LOAD_RADIUS;
+        playerChunkRow = -1;
+        playerChunkCol = -1;
+    }
+
+    /**
+     * Sets how many chunks around the player's chunk are kept loaded. Chunks more than one chunk further away than
+     * this are unloaded, so walking back and forth over a chunk border does not load and unload the same chunks.
+     * @param loadRadius how many chunks around the player's chunk to keep loaded
+     */
+    public void setLoadRadius(int loadRadius) {
+        if (loadRadius < 0) {
+            throw new IllegalArgumentException("load radius must not be negative");
+        }
+        this.loadRadius = loadRadius;
+        playerChunkRow = -1;
+        playerChunkCol = -1;
+    }
+
+    /**
+     * Turns on reading chunks in the background. Chunks around the player, and prefetchDistance chunks further on in
+     * the direction the player is moving, are requested from the streamer and added to this Map at the start of a
+     * later tick. Until a chunk arrives, the tiles of it that are needed are read from the source one at a time, and a
+     * CanvasMapRenderer leaves it out.
+     * @param streamer the streamer to read chunks with, which must read from the same source as this Map, or null to
+     *                 turn streaming off
+     * @param prefetchDistance how many chunks past the loaded ones to read ahead
+     */
+    public void setStreamer(ChunkStreamer streamer, int prefetchDistance) {
+        if (prefetchDistance < 0) {
+            throw new IllegalArgumentException("prefetch distance must not be negative");
+        }
+        this.streamer = streamer;
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    /**
+     * Returns the type of the tile at a row and column of this map, loading its chunk first if it is not loaded.
+     * @param row the row of the tile
+     * @param col the column of the tile
+     * @return the type of the tile at the given row and column
+     */
+    public TileType getType(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("tile (" + row + ", " + col + ") is outside the map");
+        }
+        return getChunk(row / Chunk.SIZE, col / Chunk.SIZE).getType(row % Chunk.SIZE, col % Chunk.SIZE);
+    }
+
+    /**
+     * Returns the type of the tile at a row and column of this map without loading its chunk. If the chunk is loaded
+     * the tile is read from it, which includes any changed tiles, since chunks with changed tiles are never unloaded.
+     * Otherwise the tile is read from the source.
+     * @param row the row of the tile
+     * @param col the column of the tile
+     * @return the type of the tile at the given row and column
+     */
+    public TileType peekType(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("tile (" + row + ", " + col + ") is outside the map");
+        }
+        Chunk chunk = chunks.get(Chunk.key(row / Chunk.SIZE, col / Chunk.SIZE));
+        if (chunk == null) {
+            return TileType.get(source.getType(row, col));
+        }
+        return chunk.getType(row % Chunk.SIZE, col % Chunk.SIZE);
+    }
+
+    /**
+     * Changes the type of the tile at a row and column of this map, marks this Map as dirty and tells the tile
+     * listeners. If the tile has a node in the root, the node is replaced. Chunks with changed tiles are never
+     * unloaded, so the change is kept.
+     * @param row the row of the tile
+     * @param col the column of the tile
+     * @param type the new type of the tile
+     */
+    public void setType(int row, int col, TileType type) {
+        if (getType(row, col) == type) {
+            return;
+        }
+        getChunk(row / Chunk.SIZE, col / Chunk.SIZE).setType(row % Chunk.SIZE, col % Chunk.SIZE, type);
+        dirty = true;
+        for (TileListener listener : tileListeners) {
+            listener.tileChanged(row, col, type);
+        }
+
+        if (row >= renderedRowStart && row < renderedRowEnd && col >= renderedColStart && col < renderedColEnd) {
+            List<Node> nodes = ((Group) parent.getChildren().get(row - renderedRowStart)).getChildren();
+            int index = col - renderedColStart;
+            forgetAnimatedNode((Rectangle) nodes.get(index));
+            nodes.set(index, createNode(type, row, col));
+        }
+    }
+
+    /**
+     * Adds a listener that is told whenever a tile changes type.
+     * @param listener the listener to add
+     */
+    public void addTileListener(TileListener listener) {
+        tileListeners.add(listener);
+    }
+
+    /**
+     * Returns true if the tile at a row and column of this map is solid.
+     * @param row the row of the tile
+     * @param col the column of the tile
+     * @return true if the tile is solid, false otherwise
+     */
+    public boolean isSolid(int row, int col) {
+        return getType(row, col).isSolid();
+    }
+
+    /**
+     * Returns the chunk at a row and column of chunks, creating it from the source if it is not loaded.
+     * @param chunkRow the row of the chunk
+     * @param chunkCol the column of the chunk
+     * @return the chunk
+     */
+    public Chunk getChunk(int chunkRow, int chunkCol) {
+        if (chunkRow < 0 || chunkRow * Chunk.SIZE >= rows || chunkCol < 0 || chunkCol * Chunk.SIZE >= cols) {
+            throw new IllegalArgumentException("chunk (" + chunkRow + ", " + chunkCol + ") is outside the map");
+        }
+        long key = Chunk.key(chunkRow, chunkCol);
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new Chunk(chunkRow, chunkCol, source);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the chunk at a row and column of chunks if it can be had without holding up the game thread. If there
+     * is no streamer, a chunk that is not loaded is created from the source, like getChunk. If there is a streamer,
+     * null is returned until the chunk has been streamed in; the chunks around the player are requested at each tick.
+     * @param chunkRow the row of the chunk
+     * @param chunkCol the column of the chunk
+     * @return the chunk, or null if it is still being streamed
+     */
+    public Chunk getReadyChunk(int chunkRow, int chunkCol) {
+        if (streamer == null) {
+            return getChunk(chunkRow, chunkCol);
+        }
+        if (chunkRow < 0 || chunkRow * Chunk.SIZE >= rows || chunkCol < 0 || chunkCol * Chunk.SIZE >= cols) {
+            throw new IllegalArgumentException("chunk (" + chunkRow + ", " + chunkCol + ") is outside the map");
+        }
+        return chunks.get(Chunk.key(chunkRow, chunkCol));
+    }
+
+    /**
+     * Loads every chunk within loadRadius of the player's chunk and unloads chunks more than loadRadius + 1 away,
+     * unless they have changed tiles. If there is a streamer, chunks are requested from it instead of being loaded
+     * right away.
+     */
+    private void updateChunks() {
+        int lastChunkRow = (rows - 1) / Chunk.SIZE;
+        int lastChunkCol = (cols - 1) / Chunk.SIZE;
+        for (int chunkRow = Math.max(0, playerChunkRow - loadRadius);
+             chunkRow <= Math.min(lastChunkRow, playerChunkRow + loadRadius); chunkRow++) {
+            for (int chunkCol = Math.max(0, playerChunkCol - loadRadius);
+                 chunkCol <= Math.min(lastChunkCol, playerChunkCol + loadRadius); chunkCol++) {
+                if (streamer != null) {
+                    requestChunk(chunkRow, chunkCol);
+                } else {
+                    getChunk(chunkRow, chunkCol);
                 }
-                // make an empty tile and color it clear if this element in tileMap is a '0'
-                else if (textMap[row][col] == '0') {
-                    tileMap[row][col] = new Tile(col * tileWidth, row * tileHeight, tileHeight, tileWidth, false, Color.color(1, 1, 1, 0));
+            }
+        }
+
+        int unloadRadius = loadRadius + 1;
+        Iterator<Chunk> iterator = chunks.values().iterator();
+        while (iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            boolean far = Math.abs(chunk.getChunkRow() - playerChunkRow) > unloadRadius
+                    || Math.abs(chunk.getChunkCol() - playerChunkCol) > unloadRadius;
+            if (far && !chunk.isModified()) {
+                iterator.remove();
+                unloadCount++;
+            }
+        }
+    }
+
+    /**
+     * Requests a chunk from the streamer if it is inside the map, not loaded and not already requested.
+     * @param chunkRow the row of the chunk
+     * @param chunkCol the column of the chunk
+     */
+    private void requestChunk(int chunkRow, int chunkCol) {
+        if (chunkRow < 0 || chunkRow * Chunk.SIZE >= rows || chunkCol < 0 || chunkCol * Chunk.SIZE >= cols) {
+            return;
+        }
+        if (!chunks.containsKey(Chunk.key(chunkRow, chunkCol))) {
+            streamer.request(chunkRow, chunkCol);
+        }
+    }
+
+    /**
+     * Requests the chunks ahead of the player: for each of the next prefetchDistance steps past the loaded chunks in
+     * the direction the player is moving, the block of chunks as wide as the loaded area.
+     * @param changeInX how far the player moved in the x direction this tick
+     * @param changeInY how far the player moved in the y direction this tick
+     */
+    private void prefetch(double changeInX, double changeInY) {
+        int stepRow = (int) Math.signum(changeInY);
+        int stepCol = (int) Math.signum(changeInX);
+        for (int step = 1; step <= prefetchDistance; step++) {
+            int centerRow = playerChunkRow + stepRow * (loadRadius + step);
+            int centerCol = playerChunkCol + stepCol * (loadRadius + step);
+            for (int chunkRow = centerRow - loadRadius; chunkRow <= centerRow + loadRadius; chunkRow++) {
+                for (int chunkCol = centerCol - loadRadius; chunkCol <= centerCol + loadRadius; chunkCol++) {
+                    requestChunk(chunkRow, chunkCol);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the chunks the streamer has finished reading, and marks this Map as dirty if one of them is in the visible
+     * range, since a CanvasMapRenderer left it out until now. Chunks that were loaded some other way in the meantime,
+     * or that are now too far from the player to be kept, are thrown away.
+     */
+    private void addStreamedChunks() {
+        int keepRadius = loadRadius + 1 + prefetchDistance;
+        Chunk chunk;
+        while ((chunk = streamer.poll()) != null) {
+            long key = Chunk.key(chunk.getChunkRow(), chunk.getChunkCol());
+            boolean far = Math.abs(chunk.getChunkRow() - playerChunkRow) > keepRadius
+                    || Math.abs(chunk.getChunkCol() - playerChunkCol) > keepRadius;
+            if (!far && !chunks.containsKey(key)) {
+                chunks.put(key, chunk);
+                int firstRow = chunk.getChunkRow() * Chunk.SIZE;
+                int firstCol = chunk.getChunkCol() * Chunk.SIZE;
+                if (firstRow < rowEnd && firstRow + Chunk.SIZE > rowStart
+                        && firstCol < colEnd && firstCol + Chunk.SIZE > colStart) {
+                    dirty = true;
                 }
             }
         }
     }
 
     /**
-     * Updates the position of each Tile in tileMap according to the player's position and translation vector.
+     * Updates the range of tiles to draw according to the player's position. Marks this Map as dirty if the range
+     * changed. Tiles keep their world coordinates; scrolling is done by the Camera. If the player moved into a new
+     * chunk, loads the chunks around it and unloads the ones that are now too far away.
+     * @param playerX the player's x position
+     * @param playerY the player's y position
+     */
+    public void tick(final double playerX, final double playerY) {
+        tick(playerX, playerY, 0, 0);
+    }
+
+    /**
+     * Updates the range of tiles to draw according to the player's position, like tick(playerX, playerY), and advances
+     * the tile animations by one tick. If chunks are being streamed, first adds the chunks that have arrived, then
+     * requests the chunks ahead of the player in the direction they are moving.
      * @param playerX the player's x position
      * @param playerY the player's y position
-     * @param changeInX how much the player moved in the x direction
-     * @param changeInY how much the player moved in the y direction
+     * @param changeInX how far the player moved in the x direction this tick
+     * @param changeInY how far the player moved in the y direction this tick
      */
-    public void tick(final double playerX, final double playerY, final int changeInX, final int changeInY) {
+    public void tick(final double playerX, final double playerY, final double changeInX, final double changeInY) {
+        if (streamer != null) {
+            addStreamedChunks();
+        }
+        int oldColStart = colStart;
+        int oldRowStart = rowStart;
+        int oldColEnd = colEnd;
+        int oldRowEnd = rowEnd;
 
-        // calculate where to start rendering the tiles in tileMap. Finds the player's position in each dimension
+        // calculate where to start rendering the tiles in this map. Finds the player's position in each dimension
         // relative the actual size of the window, then uses that fraction to which column and which row the player
         // exists in in the tile map.
         // Subtracts 5 so that 5 rows and 5 columns are always rendered behind the player.
-        colStart = (int) ((playerX / width) * tileMap[0].length - 5);
-        rowStart = (int) ((playerY / height) * tileMap.length - 5);
+        colStart = (int) ((playerX / width) * cols - 5);
+        rowStart = (int) ((playerY / height) * rows - 5);
 
         // calculates with the same logic as above, but makes sure to render 6 columns ahead of the player and
         // 4 rows ahead of the player.
-        colEnd = (int) ((playerX / width) * tileMap[0].length + 6);
-        rowEnd = (int) ((playerY / height) * tileMap.length + 4);
+        colEnd = (int) ((playerX / width) * cols + 6);
+        rowEnd = (int) ((playerY / height) * rows + 4);
 
         // check if colStart, rowStart, colEnd, rowEnd go out of bounds and update them to be the end of the bounds if
         // they do.
@@ -105,54 +391,394 @@ public class Map implements Renderable {
         if (rowStart < 0) {
             rowStart = 0;
         }
-        if (colEnd > tileMap[0].length) {
-            colEnd = tileMap[0].length;
+        if (colEnd > cols) {
+            colEnd = cols;
         }
-        if (rowEnd > tileMap.length) {
-            rowEnd = tileMap.length;
+        if (rowEnd > rows) {
+            rowEnd = rows;
         }
 
-        // Actually translate each tile in tileMap in the opposite direction of the player's translation vector.
-        // Creates an illusion that the player is actually moving but in reality the map is being translated in the
-        // opposite direction.
-        for (int row = 0; row < tileMap.length; row++) {
-            for (int col = 0; col < tileMap[0].length; col++) {
-                Tile tile = tileMap[row][col];
-                tile.getTile().setX(tile.getTile().getX() - changeInX);
-                tile.getTile().setY(tile.getTile().getY() - changeInY);
-            }
+        if (colStart != oldColStart || rowStart != oldRowStart || colEnd != oldColEnd || rowEnd != oldRowEnd) {
+            dirty = true;
+        }
+
+        // a new animation frame only needs drawing if a tile of that type is visible
+        if (animator.tick() && !animationDirty && visibleAnimatedTileChanged()) {
+            animationDirty = true;
+        }
+
+        // find the chunk the player is in, keeping it inside the map
+        int chunkRow = Math.max(0, Math.min(rows - 1, (int) ((playerY / height) * rows))) / Chunk.SIZE;
+        int chunkCol = Math.max(0, Math.min(cols - 1, (int) ((playerX / width) * cols))) / Chunk.SIZE;
+        if (chunkRow != playerChunkRow || chunkCol != playerChunkCol) {
+            playerChunkRow = chunkRow;
+            playerChunkCol = chunkCol;
+            updateChunks();
+        }
+        if (streamer != null && (changeInX != 0 || changeInY != 0)) {
+            prefetch(changeInX, changeInY);
         }
     }
 
     /**
-     * Removes all Tiles from the root node and then updates the root the correct tiles to draw and their updated
-     * positions. Adds all tiles to the root within the range (colStart, rowStart) to (colEnd, rowEnd).
+     * Updates the root so it holds a node for exactly the tiles within the range (colStart, rowStart) to (colEnd,
+     * rowEnd). Only the tiles that left or entered the range since the last render are removed or added, so nothing is
+     * done when the range has not changed. Tiles outside the range have no node at all. Then changes the fill of the
+     * visible animated tiles whose frame changed. Clears the dirty flags.
      */
     public void render() {
-        // remove all children from index 0 to the size of the child set
-        parent.getChildren().remove(0, parent.getChildren().size());
+        dirty = false;
+        animationDirty = false;
+        if (rowStart != renderedRowStart || colStart != renderedColStart
+                || rowEnd != renderedRowEnd || colEnd != renderedColEnd) {
+            updateVisibleNodes();
+        }
+        applyAnimationFrames();
+    }
+
+    /**
+     * Removes the nodes of tiles that left the visible range since the last render and adds nodes for the tiles that
+     * entered it. The root holds one Group per visible row, in order from the top, and each row's Group holds the
+     * nodes of its visible tiles in order from the left, so tiles that leave are always at one end of a list and are
+     * removed as a range without looking at the nodes that stay. The work is about the number of tiles that left or
+     * entered plus the number of visible rows.
+     */
+    private void updateVisibleNodes() {
+        List<Node> strips = parent.getChildren();
+        int keptRowStart = Math.max(rowStart, renderedRowStart);
+        int keptRowEnd = Math.min(rowEnd, renderedRowEnd);
+        int keptColStart = Math.max(colStart, renderedColStart);
+        int keptColEnd = Math.min(colEnd, renderedColEnd);
+
+        if (keptRowStart >= keptRowEnd || keptColStart >= keptColEnd) {
+            // nothing is kept, so every row leaves and every row of the new range enters
+            forgetAnimatedNodes(0, strips.size(), 0, renderedColEnd - renderedColStart);
+            if (!strips.isEmpty()) {
+                parent.getChildren().remove(0, strips.size());
+            }
+            addRows(rowStart, rowEnd, strips.size());
+        } else {
+            // rows that left above and below the new range
+            int leftAbove = keptRowStart - renderedRowStart;
+            int leftBelow = renderedRowEnd - keptRowEnd;
+            int renderedCols = renderedColEnd - renderedColStart;
+            if (leftAbove > 0) {
+                forgetAnimatedNodes(0, leftAbove, 0, renderedCols);
+                parent.getChildren().remove(0, leftAbove);
+            }
+            if (leftBelow > 0) {
+                forgetAnimatedNodes(strips.size() - leftBelow, strips.size(), 0, renderedCols);
+                parent.getChildren().remove(strips.size() - leftBelow, strips.size());
+            }
+
+            // columns that left or entered on the left and right of each kept row
+            int leftLeft = keptColStart - renderedColStart;
+            int leftRight = renderedColEnd - keptColEnd;
+            for (int row = keptRowStart; row < keptRowEnd; row++) {
+                int strip = row - keptRowStart;
+                ObservableList<Node> nodes = ((Group) strips.get(strip)).getChildren();
+                if (leftLeft > 0) {
+                    forgetAnimatedNodes(strip, strip + 1, 0, leftLeft);
+                    nodes.remove(0, leftLeft);
+                }
+                if (leftRight > 0) {
+                    forgetAnimatedNodes(strip, strip + 1, nodes.size() - leftRight, nodes.size());
+                    nodes.remove(nodes.size() - leftRight, nodes.size());
+                }
+                if (colStart < keptColStart) {
+                    nodes.addAll(0, createNodes(row, colStart, keptColStart));
+                    entering.clear();
+                }
+                if (colEnd > keptColEnd) {
+                    nodes.addAll(createNodes(row, keptColEnd, colEnd));
+                    entering.clear();
+                }
+            }
+
+            // rows that entered above and below the kept rows
+            addRows(rowStart, keptRowStart, 0);
+            addRows(keptRowEnd, rowEnd, strips.size());
+        }
+
+        renderedRowStart = rowStart;
+        renderedColStart = colStart;
+        renderedRowEnd = rowEnd;
+        renderedColEnd = colEnd;
+    }
+
+    /**
+     * Adds a row Group holding the nodes of the visible columns for each row from rowFrom up to (but not including)
+     * rowTo, in one bulk change to the root.
+     * @param rowFrom the first row to add
+     * @param rowTo the row after the last row to add
+     * @param index where in the root to insert the rows
+     */
+    private void addRows(int rowFrom, int rowTo, int index) {
+        if (rowFrom >= rowTo) {
+            return;
+        }
+        List<Node> rowGroups = new ArrayList<>(rowTo - rowFrom);
+        for (int row = rowFrom; row < rowTo; row++) {
+            rowGroups.add(new Group(createNodes(row, colStart, colEnd).toArray(new Node[0])));
+            entering.clear();
+        }
+        parent.getChildren().addAll(index, rowGroups);
+    }
+
+    /**
+     * Makes the nodes of the tiles in one row from column from up to (but not including) column to, in order, into the
+     * reused entering list, which the caller clears once it has added them.
+     * @param row the row of the tiles
+     * @param from the first column
+     * @param to the column after the last column
+     * @return the entering list holding the new nodes
+     */
+    private List<Node> createNodes(int row, int from, int to) {
+        for (int col = from; col < to; col++) {
+            entering.add(createNode(peekType(row, col), row, col));
+        }
+        return entering;
+    }
+
+    /**
+     * Stops changing the fill of the nodes at positions fromIndex up to (but not including) toIndex of the row Groups
+     * at positions fromStrip up to (but not including) toStrip in the root. Only rows that have animated nodes are
+     * looked at node by node.
+     * @param fromStrip the position of the first row Group
+     * @param toStrip the position after the last row Group
+     * @param fromIndex the position of the first node in each row
+     * @param toIndex the position after the last node in each row
+     */
+    private void forgetAnimatedNodes(int fromStrip, int toStrip, int fromIndex, int toIndex) {
+        if (!hasAnimatedNodes()) {
+            return;
+        }
+        List<Node> strips = parent.getChildren();
+        for (int strip = fromStrip; strip < toStrip; strip++) {
+            List<Node> nodes = ((Group) strips.get(strip)).getChildren();
+            for (int i = fromIndex; i < Math.min(toIndex, nodes.size()); i++) {
+                forgetAnimatedNode((Rectangle) nodes.get(i));
+            }
+        }
+    }
 
-        // add all tiles within the bounds defined
-        for (int row = rowStart; row < rowEnd; row++) {
-            for(int col = colStart; col < colEnd; col++) {
-                parent.getChildren().add(tileMap[row][col].getTile());
+    /**
+     * Returns true if any visible node belongs to an animated tile.
+     * @return true if there are animated nodes, false otherwise
+     */
+    private boolean hasAnimatedNodes() {
+        for (HashSet<Rectangle> nodes : animatedNodes.values()) {
+            if (!nodes.isEmpty()) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
-     * Returns the parent root of the tiles in tileMap.
-     * @return the parent root of the tiles in tileMap.
+     * Changes the fill of the visible nodes of every animated type whose frame changed since the last render. Only
+     * visible animated tiles are touched.
+     */
+    private void applyAnimationFrames() {
+        for (TileType type : animator.getAnimatedTypes()) {
+            int frame = animator.getFrame(type);
+            if (frame != appliedFrames[type.getId()]) {
+                appliedFrames[type.getId()] = frame;
+                HashSet<Rectangle> nodes = animatedNodes.get(type);
+                if (nodes != null) {
+                    for (Rectangle node : nodes) {
+                        node.setFill(type.getFill(frame));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes the node of a tile, showing the frame its type's animation was last rendered at, and remembers it if the
+     * type is animated.
+     * @param type the type of the tile
+     * @param row the row of the tile
+     * @param col the column of the tile
+     * @return the node of the tile
+     */
+    private Rectangle createNode(TileType type, int row, int col) {
+        Rectangle node = type.createNode(col * tileWidth, row * tileHeight, tileWidth, tileHeight,
+                appliedFrames[type.getId()]);
+        if (type.isAnimated()) {
+            animatedNodes.computeIfAbsent(type, t -> new HashSet<>()).add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Stops changing the fill of a node that is leaving the root, if it belongs to an animated tile.
+     * @param node the node
+     */
+    private void forgetAnimatedNode(Rectangle node) {
+        for (HashSet<Rectangle> nodes : animatedNodes.values()) {
+            if (nodes.remove(node)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns true if this Map has changed since it was last rendered, either because the visible range or a tile
+     * changed or because a visible animated tile changed frame.
+     * @return true if this Map needs to be redrawn, false otherwise
+     */
+    @Override
+    public boolean isDirty() {
+        return dirty || animationDirty;
+    }
+
+    /**
+     * Returns true if the visible range or a tile changed since the last render, so every visible tile has to be
+     * redrawn rather than just the animated ones.
+     * @return true if the whole visible map needs to be redrawn, false otherwise
+     */
+    public boolean isViewDirty() {
+        return dirty;
+    }
+
+    /**
+     * Clears the dirty flags without changing the tiles in the root. Used when this Map is drawn some other way, such
+     * as by a CanvasMapRenderer.
+     */
+    void markRendered() {
+        dirty = false;
+        animationDirty = false;
+    }
+
+    /**
+     * Returns true if a chunk overlapping the visible range has an animated tile of a type whose frame changed at the
+     * last tick. Whole chunks are looked at because a CanvasMapRenderer draws whole chunks, and only their animated
+     * cells are checked. Chunks still being streamed are not drawn yet, so they are skipped.
+     * @return true if a visible animated tile changed frame, false otherwise
+     */
+    private boolean visibleAnimatedTileChanged() {
+        if (rowEnd <= rowStart || colEnd <= colStart) {
+            return false;
+        }
+        for (int chunkRow = rowStart / Chunk.SIZE; chunkRow <= (rowEnd - 1) / Chunk.SIZE; chunkRow++) {
+            for (int chunkCol = colStart / Chunk.SIZE; chunkCol <= (colEnd - 1) / Chunk.SIZE; chunkCol++) {
+                Chunk chunk = getReadyChunk(chunkRow, chunkCol);
+                if (chunk == null) {
+                    continue;
+                }
+                for (int i = 0; i < chunk.getAnimatedCount(); i++) {
+                    if (animator.hasChanged(chunk.getType(chunk.getAnimatedRow(i), chunk.getAnimatedCol(i)))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first row of tiles in the visible range.
+     * @return the first row of tiles in the visible range.
+     */
+    public int getRowStart() {
+        return rowStart;
+    }
+
+    /**
+     * Returns the first column of tiles in the visible range.
+     * @return the first column of tiles in the visible range.
+     */
+    public int getColStart() {
+        return colStart;
+    }
+
+    /**
+     * Returns the row after the last row of tiles in the visible range.
+     * @return the row after the last row of tiles in the visible range.
+     */
+    public int getRowEnd() {
+        return rowEnd;
+    }
+
+    /**
+     * Returns the column after the last column of tiles in the visible range.
+     * @return the column after the last column of tiles in the visible range.
+     */
+    public int getColEnd() {
+        return colEnd;
+    }
+
+    /**
+     * Returns the parent root of the tiles in this map.
+     * @return the parent root of the tiles in this map.
      */
     public Group getParent() {
         return parent;
     }
 
     /**
-     * Returns a 2D array holding all tiles in this map.
-     * @return a 2D array holding all tiles in this map.
+     * Returns the default 16 x 16 layout used when no layout is given.
+     * @return the default layout
+     */
+    public static char[][] getDefaultLayout() {
+        return DEFAULT_LAYOUT;
+    }
+
+    /**
+     * Returns the number of chunks ever unloaded. A chunk from getChunk is still the map's chunk as long as this has
+     * not changed.
+     * @return the number of chunks ever unloaded.
+     */
+    public int getUnloadCount() {
+        return unloadCount;
+    }
+
+    /**
+     * Returns the animation table that decides which frame animated tiles are showing.
+     * @return the animation table of this map.
+     */
+    public TileAnimator getAnimator() {
+        return animator;
+    }
+
+    /**
+     * Returns the chunks that are loaded right now.
+     * @return the chunks that are loaded right now.
+     */
+    public Collection<Chunk> getLoadedChunks() {
+        return chunks.values();
+    }
+
+    /**
+     * Returns the number of rows of tiles in this map.
+     * @return the number of rows of tiles in this map.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of tiles in this map.
+     * @return the number of columns of tiles in this map.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Returns the width of one tile in pixels.
+     * @return the width of one tile in pixels.
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Returns the height of one tile in pixels.
+     * @return the height of one tile in pixels.
      */
-    public Tile[][] getTileMap() {
-        return tileMap;
+    public int getTileHeight() {
+        return tileHeight;
     }
 }
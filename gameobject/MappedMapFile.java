@@ -0,0 +1,214 @@
+package gameobject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents a map stored in a binary file and read through a memory mapping. Opening a file only reads its header;
+ * every tile lookup reads straight from the mapped bytes, so nothing is parsed or allocated per tile and the operating
+ * system only pages in the parts of the file that are used.
+ *
+ * The file is laid out as:
+ * - a header of HEADER_SIZE bytes: the magic number, the format version, the number of rows, the number of columns,
+ *   the chunk size and a reserved int, all big-endian ints
+ * - one TileType id byte per tile, chunk by chunk in row-major order of chunks, and row-major within each chunk. Chunks
+ *   on the right and bottom edges are padded to a full chunk so every chunk starts at a fixed offset.
+ * - one flags byte per tile, in the same order as the tile types
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class MappedMapFile implements ChunkSource {
+
+    public static final int MAGIC = 0x52504D31; // "RPM1"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 24; // the size of the header in bytes
+
+    public static final byte FLAG_SOLID = 1; // the flag bit set on tiles the player cannot walk through
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final MappedByteBuffer buffer; // the whole file
+    private final int rows; // the number of rows of tiles in the map
+    private final int cols; // the number of columns of tiles in the map
+    private final int chunkSize; // the number of rows and columns of tiles in a chunk
+    private final int chunkCols; // the number of columns of chunks in the map
+    private final int flagsOffset; // where the flags start in the file
+
+    private MappedMapFile(MappedByteBuffer buffer, int rows, int cols, int chunkSize) {
+        this.buffer = buffer;
+        this.rows = rows;
+        this.cols = cols;
+        this.chunkSize = chunkSize;
+        this.chunkCols = ceilDiv(cols, chunkSize);
+        this.flagsOffset = HEADER_SIZE + (int) tileSectionSize(rows, cols, chunkSize);
+    }
+
+    /**
+     * Maps a map file into memory and checks its header.
+     * @param path the file to open
+     * @return the opened map
+     * @throws IOException if the file cannot be read or is not a map file
+     */
+    public static MappedMapFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException(path + " is too small to be a map file");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too big to map into one buffer");
+            }
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a map file");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException(path + " has unsupported version " + buffer.getInt(4));
+            }
+            int rows = buffer.getInt(8);
+            int cols = buffer.getInt(12);
+            int chunkSize = buffer.getInt(16);
+            if (rows <= 0 || cols <= 0 || chunkSize <= 0) {
+                throw new IOException(path + " has a bad header");
+            }
+            if (size < HEADER_SIZE + 2 * tileSectionSize(rows, cols, chunkSize)) {
+                throw new IOException(path + " is shorter than its header says");
+            }
+            return new MappedMapFile(buffer, rows, cols, chunkSize);
+        }
+    }
+
+    /**
+     * Writes any ChunkSource, such as a LayoutChunkSource made from a text layout, to a map file using the default
+     * chunk size.
+     * @param path the file to write
+     * @param source the map to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, ChunkSource source) throws IOException {
+        int rows = source.getRows();
+        int cols = source.getCols();
+        int chunkSize = Chunk.SIZE;
+        int chunkRows = ceilDiv(rows, chunkSize);
+        int chunkCols = ceilDiv(cols, chunkSize);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(chunkSize).putInt(0);
+            header.flip();
+            writeFully(channel, header);
+
+            // the tile types, then the flags, both in chunk order
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            for (int section = 0; section < 2; section++) {
+                for (int chunkRow = 0; chunkRow < chunkRows; chunkRow++) {
+                    for (int chunkCol = 0; chunkCol < chunkCols; chunkCol++) {
+                        for (int row = chunkRow * chunkSize; row < (chunkRow + 1) * chunkSize; row++) {
+                            for (int col = chunkCol * chunkSize; col < (chunkCol + 1) * chunkSize; col++) {
+                                // cells past the edge of the map are padding and stay open
+                                byte type = (row < rows && col < cols)
+                                        ? source.getType(row, col) : TileType.OPEN.getId();
+                                if (section == 0) {
+                                    out.put(type);
+                                } else {
+                                    out.put(TileType.get(type).isSolid() ? FLAG_SOLID : 0);
+                                }
+                                if (!out.hasRemaining()) {
+                                    out.flip();
+                                    writeFully(channel, out);
+                                    out.clear();
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            out.flip();
+            writeFully(channel, out);
+        }
+    }
+
+    /**
+     * Returns the TileType id of a cell.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the type id of the cell
+     */
+    @Override
+    public byte getType(int row, int col) {
+        return buffer.get(HEADER_SIZE + offsetOf(row, col));
+    }
+
+    /**
+     * Returns the flags byte of a cell.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the flags of the cell
+     */
+    public byte getFlags(int row, int col) {
+        return buffer.get(flagsOffset + offsetOf(row, col));
+    }
+
+    /**
+     * Returns '1' if the cell is solid and '0' otherwise, so the file can be used anywhere a layout can.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the layout char of the cell
+     */
+    @Override
+    public char getCell(int row, int col) {
+        return (getFlags(row, col) & FLAG_SOLID) != 0 ? '1' : '0';
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Returns where a cell is within the tile type section, and also within the flags section.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the offset of the cell from the start of its section
+     */
+    private int offsetOf(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("tile (" + row + ", " + col + ") is outside the map");
+        }
+        int chunk = (row / chunkSize) * chunkCols + (col / chunkSize);
+        return chunk * chunkSize * chunkSize + (row % chunkSize) * chunkSize + (col % chunkSize);
+    }
+
+    /**
+     * Returns the number of bytes in the tile type section, which is the same as the number in the flags section.
+     * @param rows the number of rows of tiles
+     * @param cols the number of columns of tiles
+     * @param chunkSize the number of rows and columns of tiles in a chunk
+     * @return the number of bytes in one section
+     */
+    private static long tileSectionSize(int rows, int cols, int chunkSize) {
+        return (long) ceilDiv(rows, chunkSize) * ceilDiv(cols, chunkSize) * chunkSize * chunkSize;
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package gameobject;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+import rpgmain.Renderable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Represents a small picture of a whole Map with markers showing where things are. The picture has one pixel per tile
+ * on small maps, and one pixel per square block of tiles on maps bigger than MAX_SIZE tiles across, showing the tile in
+ * the middle of the block, so the picture never has more than MAX_SIZE x MAX_SIZE pixels. It is filled a band of rows
+ * at a time over the first renders, so making a minimap of a huge map does not read the whole map at once; after that
+ * only the pixels of tiles that change are redrawn. The markers are small rectangles drawn over the picture that are
+ * only moved when what they mark moves.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class Minimap implements Renderable, TileListener {
+
+    private static final Color BACKGROUND = Color.DARKGREEN; // the color of tiles that are clear
+    private static final double MARKER_SIZE = 4; // the width and height of a marker in pixels
+    private static final int MAX_SIZE = 512; // the most pixels the picture can have across or down
+    private static final int PIXELS_PER_RENDER = 16384; // about how many pixels are filled in each render until done
+
+    private final Map map; // the map shown
+    private final WritableImage image; // the picture of the map, one pixel per block of tiles
+    private final PixelWriter writer; // the pixel writer of image
+    private final int tilesPerPixel; // how many tiles wide and high the block shown by one pixel is
+    private int filledRows; // how many rows of pixels from the top have been filled
+    private final Group node; // holds the picture and the markers
+    private final double scaleX; // what to multiply a world x coordinate by to get a minimap x coordinate
+    private final double scaleY; // what to multiply a world y coordinate by to get a minimap y coordinate
+    private final ArrayList<Rectangle> markers = new ArrayList<>(); // the marker rectangles, by marker id
+    private double[] markerX = new double[4]; // where each marker should be drawn, in minimap x coordinates
+    private double[] markerY = new double[4]; // where each marker should be drawn, in minimap y coordinates
+    private boolean dirty; // true if a marker moved since the last render or the picture is not filled yet
+
+    /**
+     * Makes an empty picture of the map, which is filled over the next renders, and registers to hear about tiles that
+     * change.
+     * @param map the map to show
+     * @param displayWidth how wide to show the minimap in pixels; the height keeps the map's proportions
+     */
+    public Minimap(Map map, double displayWidth) {
+        this.map = map;
+        int rows = map.getRows();
+        int cols = map.getCols();
+        tilesPerPixel = (Math.max(rows, cols) + MAX_SIZE - 1) / MAX_SIZE;
+        image = new WritableImage((cols + tilesPerPixel - 1) / tilesPerPixel,
+                (rows + tilesPerPixel - 1) / tilesPerPixel);
+        writer = image.getPixelWriter();
+        filledRows = 0;
+        map.addTileListener(this);
+
+        double displayHeight = displayWidth * rows / cols;
+        ImageView view = new ImageView(image);
+        view.setFitWidth(displayWidth);
+        view.setFitHeight(displayHeight);
+        // keep each tile a sharp square instead of blurring them together
+        view.setSmooth(false);
+        node = new Group(view);
+
+        scaleX = displayWidth / ((double) cols * map.getTileWidth());
+        scaleY = displayHeight / ((double) rows * map.getTileHeight());
+        dirty = true;
+    }
+
+    /**
+     * Adds a marker to the minimap.
+     * @param fill the color of the marker
+     * @return the id of the marker, used to move it
+     */
+    public int addMarker(Paint fill) {
+        int id = markers.size();
+        Rectangle marker = new Rectangle(0, 0, MARKER_SIZE, MARKER_SIZE);
+        marker.setFill(fill);
+        markers.add(marker);
+        node.getChildren().add(marker);
+        if (id == markerX.length) {
+            markerX = Arrays.copyOf(markerX, id * 2);
+            markerY = Arrays.copyOf(markerY, id * 2);
+        }
+        dirty = true;
+        return id;
+    }
+
+    /**
+     * Moves a marker to a position on the map. The marker is centered on the position. The marker's rectangle is only
+     * moved at the next render, and only if the position changed on the minimap.
+     * @param id the id of the marker
+     * @param worldX the x position on the map
+     * @param worldY the y position on the map
+     */
+    public void moveMarker(int id, double worldX, double worldY) {
+        double x = worldX * scaleX - MARKER_SIZE / 2;
+        double y = worldY * scaleY - MARKER_SIZE / 2;
+        if (x != markerX[id] || y != markerY[id]) {
+            markerX[id] = x;
+            markerY[id] = y;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Redraws the pixel of a tile that changed type, if the pixel shows that tile and has been filled already. Pixels
+     * that are not filled yet will read the new type when they are.
+     * @param row the row of the tile
+     * @param col the column of the tile
+     * @param type the new type of the tile
+     */
+    @Override
+    public void tileChanged(int row, int col, TileType type) {
+        int pixelRow = row / tilesPerPixel;
+        int pixelCol = col / tilesPerPixel;
+        if (pixelRow < filledRows && sampleRow(pixelRow) == row && sampleCol(pixelCol) == col) {
+            writer.setColor(pixelCol, pixelRow, colorOf(type));
+        }
+    }
+
+    /**
+     * Fills the next band of the picture if it is not finished, then moves the markers' rectangles to where they
+     * should be drawn.
+     */
+    @Override
+    public void render() {
+        int height = (int) image.getHeight();
+        if (filledRows < height) {
+            fillRows(Math.min(height, filledRows + Math.max(1, PIXELS_PER_RENDER / (int) image.getWidth())));
+        }
+        dirty = filledRows < height;
+        for (int id = 0; id < markers.size(); id++) {
+            Rectangle marker = markers.get(id);
+            marker.setX(markerX[id]);
+            marker.setY(markerY[id]);
+        }
+    }
+
+    /**
+     * Returns true if a marker moved since the last render or the picture is not filled yet.
+     * @return true if the minimap needs to be redrawn, false otherwise
+     */
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Returns the node holding the minimap, to be added to a scene.
+     * @return the node holding the minimap.
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    /**
+     * Fills the rows of pixels from filledRows up to (but not including) end. Each pixel reads only the tile in the
+     * middle of its block, without loading its chunk.
+     * @param end the row of pixels after the last one to fill
+     */
+    private void fillRows(int end) {
+        int width = (int) image.getWidth();
+        for (int pixelRow = filledRows; pixelRow < end; pixelRow++) {
+            int row = sampleRow(pixelRow);
+            for (int pixelCol = 0; pixelCol < width; pixelCol++) {
+                writer.setColor(pixelCol, pixelRow, colorOf(map.peekType(row, sampleCol(pixelCol))));
+            }
+        }
+        filledRows = end;
+    }
+
+    /**
+     * Returns the row of the tile a row of pixels shows: the middle row of its block, kept inside the map.
+     * @param pixelRow the row of pixels
+     * @return the row of the tile shown
+     */
+    private int sampleRow(int pixelRow) {
+        return Math.min(map.getRows() - 1, pixelRow * tilesPerPixel + tilesPerPixel / 2);
+    }
+
+    /**
+     * Returns the column of the tile a column of pixels shows: the middle column of its block, kept inside the map.
+     * @param pixelCol the column of pixels
+     * @return the column of the tile shown
+     */
+    private int sampleCol(int pixelCol) {
+        return Math.min(map.getCols() - 1, pixelCol * tilesPerPixel + tilesPerPixel / 2);
+    }
+
+    /**
+     * Returns the color of a tile of the given type on the minimap.
+     * @param type the type of tile
+     * @return the color of the tile
+     */
+    private static Color colorOf(TileType type) {
+        return type.isBlank() ? BACKGROUND : type.getFill();
+    }
+}
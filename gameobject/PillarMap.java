@@ -0,0 +1,108 @@
+package gameobject;
+
+import javafx.scene.Group;
+
+import java.util.Random;
+
+/**
+ * Builds the test world used by the benchmarks and by HeadlessGame, so that they all measure the same thing: square
+ * maps of any size with a solid border and a solid tile every 7 tiles inside, so collision checks have something to
+ * find, and entities wandering them in random directions.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public final class PillarMap {
+
+    public static final int TILE_SIZE = 32; // the width and height of a tile of the maps made by create, in pixels
+    public static final double ENTITY_SIZE = 10; // the width and height of a wandering entity
+    public static final double MAX_SPEED = 3; // the most a wandering entity moves in each direction every step
+
+    private PillarMap() {
+    }
+
+    /**
+     * Returns a map with size rows and columns of TILE_SIZE tiles.
+     * @param size the number of rows and columns
+     * @param parent the node to hold the map's tiles, or null if the map is never shown
+     * @return the map
+     */
+    public static Map create(int size, Group parent) {
+        return new Map(size * TILE_SIZE, size * TILE_SIZE, parent, layout(size));
+    }
+
+    /**
+     * Returns a square layout with the given number of rows and columns.
+     * @param size the number of rows and columns
+     * @return the layout
+     */
+    public static char[][] layout(int size) {
+        char[][] layout = new char[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                layout[row][col] = cell(size, row, col);
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Returns the same layout as layout, but as a ChunkSource that works out each cell when asked, so very big maps
+     * can be made without holding the whole layout in memory.
+     * @param size the number of rows and columns
+     * @return the layout
+     */
+    public static ChunkSource source(int size) {
+        return new ChunkSource() {
+            @Override
+            public int getRows() {
+                return size;
+            }
+
+            @Override
+            public int getCols() {
+                return size;
+            }
+
+            @Override
+            public char getCell(int row, int col) {
+                return cell(size, row, col);
+            }
+        };
+    }
+
+    /**
+     * Adds an ENTITY_SIZE entity to a store at a random place on a map where it does not overlap a solid tile, moving
+     * in a random direction at up to MAX_SPEED.
+     * @param store the store to add the entity to
+     * @param map the map the entity wanders
+     * @param grid the map's collision grid
+     * @param random where the entity's position and velocity come from
+     * @param flags the entity's flags, such as EntityStore.COLLIDES_WITH_TILES
+     * @return the entity's id in the store
+     */
+    public static int addWanderer(EntityStore store, Map map, CollisionGrid grid, Random random, int flags) {
+        double width = map.getCols() * map.getTileWidth();
+        double height = map.getRows() * map.getTileHeight();
+        double x;
+        double y;
+        do {
+            x = random.nextDouble() * width;
+            y = random.nextDouble() * height;
+        } while (grid.overlapsSolid(x, y, ENTITY_SIZE, ENTITY_SIZE));
+        return store.create(x, y, ENTITY_SIZE, ENTITY_SIZE, (random.nextDouble() * 2 - 1) * MAX_SPEED,
+                (random.nextDouble() * 2 - 1) * MAX_SPEED, flags);
+    }
+
+    /**
+     * Returns the layout char of one cell of a square layout.
+     * @param size the number of rows and columns
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return '1' if the cell is solid, '0' otherwise
+     */
+    private static char cell(int size, int row, int col) {
+        boolean border = row == 0 || col == 0 || row == size - 1 || col == size - 1;
+        boolean pillar = row % 7 == 3 && col % 7 == 3;
+        return (border || pillar) ? '1' : '0';
+    }
+}
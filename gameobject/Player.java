@@ -49,6 +49,22 @@ public class Player extends Battler {
         return pseudoY;
     }
 
+    /**
+     * Mutates the x position of this player.
+     * @param pseudoX the x position of this player
+     */
+    public void setPseudoX(double pseudoX) {
+        this.pseudoX = pseudoX;
+    }
+
+    /**
+     * Mutates the y position of this player.
+     * @param pseudoY the y position of this player
+     */
+    public void setPseudoY(double pseudoY) {
+        this.pseudoY = pseudoY;
+    }
+
     /**
      * Increments this Player's x position by 20 pixels.
      */
@@ -0,0 +1,461 @@
+package gameobject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a broad-phase index over objects with boxes in world coordinates, such as the enemies on a map. The
+ * world is split into square cells, and each object is listed in every cell its box touches, so finding what overlaps
+ * a box only has to look at the objects in a few cells instead of every object. Objects are identified by int handles,
+ * and moving an object only changes the cells it is listed in when its box crosses into different cells.
+ *
+ * The cells that have objects are kept in an open addressing table keyed by the cell's row and column packed into a
+ * long, so looking up a cell does not box its key.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ * @param <T> the type of object stored
+ */
+public class SpatialHash<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_CELL_SLOTS = 64; // the starting size of the cell table, a power of two
+
+    private final double cellSize; // the width and height of one cell
+    private long[] cellKeys; // the key of the cell in each slot of the cell table
+    private Bucket[] cellBuckets; // the handles listed in the cell in each slot, or null if the slot is empty
+    private int cellCount; // the number of cells in the cell table, kept to at most half its slots
+
+    private Object[] objects; // the object of each handle, or null if the handle is free
+    private double[] x; // the x position of each handle's box
+    private double[] y; // the y position of each handle's box
+    private double[] width; // the width of each handle's box
+    private double[] height; // the height of each handle's box
+    private int[] firstCol; // the first column of cells each handle is listed in
+    private int[] firstRow; // the first row of cells each handle is listed in
+    private int[] lastCol; // the last column of cells each handle is listed in
+    private int[] lastRow; // the last row of cells each handle is listed in
+    private int[] lastQuery; // the number of the last query that returned each handle, so it is returned only once
+    private int handleCount; // the number of handles ever given out
+    private int[] freeHandles; // a stack of handles that can be given out again
+    private int freeCount; // the number of handles in freeHandles
+    private int size; // the number of objects in the index
+    private int queryCount; // the number of queries made
+
+    public SpatialHash(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        cellKeys = new long[INITIAL_CELL_SLOTS];
+        cellBuckets = new Bucket[INITIAL_CELL_SLOTS];
+        objects = new Object[INITIAL_CAPACITY];
+        x = new double[INITIAL_CAPACITY];
+        y = new double[INITIAL_CAPACITY];
+        width = new double[INITIAL_CAPACITY];
+        height = new double[INITIAL_CAPACITY];
+        firstCol = new int[INITIAL_CAPACITY];
+        firstRow = new int[INITIAL_CAPACITY];
+        lastCol = new int[INITIAL_CAPACITY];
+        lastRow = new int[INITIAL_CAPACITY];
+        lastQuery = new int[INITIAL_CAPACITY];
+        freeHandles = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds an object with a box to the index.
+     * @param object the object to add
+     * @param x the x position of the object's box
+     * @param y the y position of the object's box
+     * @param width the width of the object's box
+     * @param height the height of the object's box
+     * @return the handle of the object, used to move or remove it
+     */
+    public int insert(T object, double x, double y, double width, double height) {
+        if (object == null) {
+            throw new IllegalArgumentException("object must not be null");
+        }
+        int handle = allocateHandle();
+        objects[handle] = object;
+        setBox(handle, x, y, width, height);
+        firstCol[handle] = cellOf(x);
+        firstRow[handle] = cellOf(y);
+        lastCol[handle] = lastCellOf(x, x + width);
+        lastRow[handle] = lastCellOf(y, y + height);
+        addToCells(handle);
+        size++;
+        return handle;
+    }
+
+    /**
+     * Moves an object's box. The cells the object is listed in are only changed if the box now touches different
+     * cells.
+     * @param handle the handle of the object
+     * @param x the new x position of the object's box
+     * @param y the new y position of the object's box
+     * @param width the new width of the object's box
+     * @param height the new height of the object's box
+     */
+    public void update(int handle, double x, double y, double width, double height) {
+        checkHandle(handle);
+        setBox(handle, x, y, width, height);
+        int newFirstCol = cellOf(x);
+        int newFirstRow = cellOf(y);
+        int newLastCol = lastCellOf(x, x + width);
+        int newLastRow = lastCellOf(y, y + height);
+        if (newFirstCol != firstCol[handle] || newFirstRow != firstRow[handle]
+                || newLastCol != lastCol[handle] || newLastRow != lastRow[handle]) {
+            removeFromCells(handle);
+            firstCol[handle] = newFirstCol;
+            firstRow[handle] = newFirstRow;
+            lastCol[handle] = newLastCol;
+            lastRow[handle] = newLastRow;
+            addToCells(handle);
+        }
+    }
+
+    /**
+     * Removes an object from the index. Its handle may be given to another object later.
+     * @param handle the handle of the object
+     */
+    public void remove(int handle) {
+        checkHandle(handle);
+        removeFromCells(handle);
+        objects[handle] = null;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+        size--;
+    }
+
+    /**
+     * Adds to out every object whose box overlaps the given box. Boxes that only touch at an edge do not overlap. Each
+     * object is added once.
+     * @param x the x position of the box
+     * @param y the y position of the box
+     * @param width the width of the box
+     * @param height the height of the box
+     * @param out the list to add the objects to
+     */
+    public void queryBox(double x, double y, double width, double height, List<? super T> out) {
+        query(x, y, width, height, x, y, -1, out);
+    }
+
+    /**
+     * Adds to out every object whose box is within a distance of a point, meaning the closest point of the box is no
+     * further than radius from it. Each object is added once.
+     * @param centerX the x position of the point
+     * @param centerY the y position of the point
+     * @param radius the distance from the point
+     * @param out the list to add the objects to
+     */
+    public void queryRadius(double centerX, double centerY, double radius, List<? super T> out) {
+        query(centerX - radius, centerY - radius, 2 * radius, 2 * radius, centerX, centerY, radius, out);
+    }
+
+    /**
+     * Sweeps a box along its motion and records in out the first object in the index it hits, if any. Only the
+     * objects listed in the cells the box covers on its way are checked. An object the box already overlaps counts as
+     * hit at the start of the motion.
+     * @param x the x position of the box
+     * @param y the y position of the box
+     * @param width the width of the box
+     * @param height the height of the box
+     * @param changeInX how far the box moves in the x direction
+     * @param changeInY how far the box moves in the y direction
+     * @param ignore the handle of an object to skip, such as the one being moved, or -1
+     * @param out the sweep to record the result in
+     * @return true if the box hits an object, false otherwise
+     */
+    public boolean sweep(double x, double y, double width, double height, double changeInX, double changeInY,
+                         int ignore, Sweep out) {
+        out.reset(x, y, changeInX, changeInY);
+        int query = ++queryCount;
+        double left = Math.min(x, x + changeInX);
+        double top = Math.min(y, y + changeInY);
+        int lastSweepCol = lastCellOf(left, Math.max(x, x + changeInX) + width);
+        int lastSweepRow = lastCellOf(top, Math.max(y, y + changeInY) + height);
+        for (int row = cellOf(top); row <= lastSweepRow; row++) {
+            for (int col = cellOf(left); col <= lastSweepCol; col++) {
+                int slot = findCell(key(row, col));
+                if (slot < 0) {
+                    continue;
+                }
+                Bucket bucket = cellBuckets[slot];
+                for (int i = 0; i < bucket.size; i++) {
+                    int handle = bucket.handles[i];
+                    if (lastQuery[handle] == query || handle == ignore) {
+                        continue;
+                    }
+                    lastQuery[handle] = query;
+                    out.against(x, y, width, height, changeInX, changeInY,
+                            this.x[handle], this.y[handle], this.width[handle], this.height[handle],
+                            true, true, true, handle);
+                }
+            }
+        }
+        return out.isHit();
+    }
+
+    /**
+     * Returns the object with the given handle.
+     * @param handle the handle of the object
+     * @return the object with the given handle
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int handle) {
+        checkHandle(handle);
+        return (T) objects[handle];
+    }
+
+    /**
+     * Returns the number of objects in the index.
+     * @return the number of objects in the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks at the objects listed in the cells a box touches and adds the ones that overlap the box, and that are
+     * within radius of the center if radius is not negative.
+     */
+    @SuppressWarnings("unchecked")
+    private void query(double x, double y, double width, double height, double centerX, double centerY,
+                       double radius, List<? super T> out) {
+        int query = ++queryCount;
+        int lastQueryCol = lastCellOf(x, x + width);
+        int lastQueryRow = lastCellOf(y, y + height);
+        for (int row = cellOf(y); row <= lastQueryRow; row++) {
+            for (int col = cellOf(x); col <= lastQueryCol; col++) {
+                int slot = findCell(key(row, col));
+                if (slot < 0) {
+                    continue;
+                }
+                Bucket bucket = cellBuckets[slot];
+                for (int i = 0; i < bucket.size; i++) {
+                    int handle = bucket.handles[i];
+                    if (lastQuery[handle] == query) {
+                        continue;
+                    }
+                    lastQuery[handle] = query;
+                    boolean hit = (radius < 0)
+                            ? overlaps(handle, x, y, width, height)
+                            : distanceSquared(handle, centerX, centerY) <= radius * radius;
+                    if (hit) {
+                        out.add((T) objects[handle]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if a handle's box overlaps the given box.
+     */
+    private boolean overlaps(int handle, double boxX, double boxY, double boxWidth, double boxHeight) {
+        return x[handle] < boxX + boxWidth && boxX < x[handle] + width[handle]
+                && y[handle] < boxY + boxHeight && boxY < y[handle] + height[handle];
+    }
+
+    /**
+     * Returns the squared distance from a point to the closest point of a handle's box.
+     */
+    private double distanceSquared(int handle, double pointX, double pointY) {
+        double dx = Math.max(Math.max(x[handle] - pointX, 0), pointX - (x[handle] + width[handle]));
+        double dy = Math.max(Math.max(y[handle] - pointY, 0), pointY - (y[handle] + height[handle]));
+        return dx * dx + dy * dy;
+    }
+
+    private void setBox(int handle, double x, double y, double width, double height) {
+        this.x[handle] = x;
+        this.y[handle] = y;
+        this.width[handle] = width;
+        this.height[handle] = height;
+    }
+
+    /**
+     * Lists a handle in every cell in its cell range.
+     */
+    private void addToCells(int handle) {
+        for (int row = firstRow[handle]; row <= lastRow[handle]; row++) {
+            for (int col = firstCol[handle]; col <= lastCol[handle]; col++) {
+                addCell(key(row, col)).add(handle);
+            }
+        }
+    }
+
+    /**
+     * Takes a handle out of every cell in its cell range, dropping cells that become empty.
+     */
+    private void removeFromCells(int handle) {
+        for (int row = firstRow[handle]; row <= lastRow[handle]; row++) {
+            for (int col = firstCol[handle]; col <= lastCol[handle]; col++) {
+                int slot = findCell(key(row, col));
+                if (slot >= 0 && cellBuckets[slot].remove(handle) && cellBuckets[slot].size == 0) {
+                    removeCell(slot);
+                }
+            }
+        }
+    }
+
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Returns the last cell a box reaches into, given where it starts and ends. A box ending exactly on a cell's edge
+     * does not reach into that cell, but a box with no width or height is still in the cell it starts in.
+     */
+    private int lastCellOf(double start, double end) {
+        return Math.max(cellOf(start), (int) Math.ceil(end / cellSize) - 1);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the slot of the cell table a key is looked for first. Nearby cells have nearby keys, so the key is mixed
+     * before it is cut down to the table's size.
+     */
+    private static int homeSlot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the slot of the cell table holding a cell, or -1 if the cell has no objects.
+     */
+    private int findCell(long key) {
+        int mask = cellBuckets.length - 1;
+        for (int slot = homeSlot(key, mask); cellBuckets[slot] != null; slot = (slot + 1) & mask) {
+            if (cellKeys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the bucket of a cell, adding an empty one to the cell table if the cell has none.
+     */
+    private Bucket addCell(long key) {
+        int mask = cellBuckets.length - 1;
+        int slot = homeSlot(key, mask);
+        for (; cellBuckets[slot] != null; slot = (slot + 1) & mask) {
+            if (cellKeys[slot] == key) {
+                return cellBuckets[slot];
+            }
+        }
+        if (2 * (cellCount + 1) > cellBuckets.length) {
+            growCells();
+            return addCell(key);
+        }
+        cellKeys[slot] = key;
+        cellBuckets[slot] = new Bucket();
+        cellCount++;
+        return cellBuckets[slot];
+    }
+
+    /**
+     * Empties a slot of the cell table. The cells after it that were pushed past their home slot are moved back, so
+     * every cell can still be found by probing from its home slot without leaving markers behind.
+     */
+    private void removeCell(int slot) {
+        int mask = cellBuckets.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; cellBuckets[next] != null; next = (next + 1) & mask) {
+            int home = homeSlot(cellKeys[next], mask);
+            // the cell at next can fill the hole unless its home slot is after the hole and no later than next
+            boolean reachable = (hole <= next) ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!reachable) {
+                cellKeys[hole] = cellKeys[next];
+                cellBuckets[hole] = cellBuckets[next];
+                hole = next;
+            }
+        }
+        cellBuckets[hole] = null;
+        cellCount--;
+    }
+
+    /**
+     * Doubles the number of slots in the cell table and puts every cell back in.
+     */
+    private void growCells() {
+        long[] oldKeys = cellKeys;
+        Bucket[] oldBuckets = cellBuckets;
+        cellKeys = new long[oldKeys.length * 2];
+        cellBuckets = new Bucket[oldBuckets.length * 2];
+        int mask = cellBuckets.length - 1;
+        for (int i = 0; i < oldBuckets.length; i++) {
+            if (oldBuckets[i] != null) {
+                int slot = homeSlot(oldKeys[i], mask);
+                while (cellBuckets[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                cellKeys[slot] = oldKeys[i];
+                cellBuckets[slot] = oldBuckets[i];
+            }
+        }
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= handleCount || objects[handle] == null) {
+            throw new IllegalArgumentException("handle " + handle + " is not in use");
+        }
+    }
+
+    /**
+     * Returns a recycled handle if there is one, otherwise a new handle, growing the arrays if needed.
+     */
+    private int allocateHandle() {
+        if (freeCount > 0) {
+            return freeHandles[--freeCount];
+        }
+        if (handleCount == objects.length) {
+            int capacity = handleCount * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            width = Arrays.copyOf(width, capacity);
+            height = Arrays.copyOf(height, capacity);
+            firstCol = Arrays.copyOf(firstCol, capacity);
+            firstRow = Arrays.copyOf(firstRow, capacity);
+            lastCol = Arrays.copyOf(lastCol, capacity);
+            lastRow = Arrays.copyOf(lastRow, capacity);
+            lastQuery = Arrays.copyOf(lastQuery, capacity);
+        }
+        return handleCount++;
+    }
+
+    /**
+     * Represents the handles listed in one cell.
+     */
+    private static class Bucket {
+
+        private int[] handles = new int[4];
+        private int size;
+
+        private void add(int handle) {
+            if (size == handles.length) {
+                handles = Arrays.copyOf(handles, size * 2);
+            }
+            handles[size++] = handle;
+        }
+
+        /**
+         * Removes a handle by moving the last handle into its place.
+         * @return true if the handle was found
+         */
+        private boolean remove(int handle) {
+            for (int i = 0; i < size; i++) {
+                if (handles[i] == handle) {
+                    handles[i] = handles[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
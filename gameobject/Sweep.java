@@ -0,0 +1,196 @@
+package gameobject;
+
+/**
+ * Represents the result of sweeping a moving box along its motion: how far along the motion it got before hitting
+ * something, which side it hit, and where it ended up. One Sweep is meant to be kept and reused for every move, so
+ * sweeping never creates objects.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class Sweep {
+
+    private double time; // how much of the motion was done before the hit, from 0 to 1, or 1 if nothing was hit
+    private double normalX; // the x direction of the side that was hit, -1, 0 or 1
+    private double normalY; // the y direction of the side that was hit, -1, 0 or 1
+    private double x; // the x position of the box at the time of the hit, or at the end of the motion
+    private double y; // the y position of the box at the time of the hit, or at the end of the motion
+    private int handle; // the handle of the entity that was hit, or -1 if nothing or a tile was hit
+    private boolean hit; // true if something was hit
+
+    public Sweep() {
+        reset(0, 0, 0, 0);
+    }
+
+    /**
+     * Clears this sweep so that it says the box moved all the way from (x, y) by (changeInX, changeInY) without
+     * hitting anything.
+     * @param x the x position of the box before moving
+     * @param y the y position of the box before moving
+     * @param changeInX how far the box moves in the x direction
+     * @param changeInY how far the box moves in the y direction
+     */
+    public void reset(double x, double y, double changeInX, double changeInY) {
+        time = 1;
+        normalX = 0;
+        normalY = 0;
+        this.x = x + changeInX;
+        this.y = y + changeInY;
+        handle = -1;
+        hit = false;
+    }
+
+    /**
+     * Sweeps a moving box against a still box and records the hit if it is earlier than the one already recorded.
+     * Boxes that only touch at an edge do not hit, so a box can slide along a wall it is resting against. A box that
+     * already overlaps the still box at the start only hits it if overlapCounts is true, in which case the hit is at
+     * time 0 with no normal. If the box reaches a corner of the still box in both directions at the same time, the side
+     * that is open is used, so a box sliding along a row of tiles does not catch on the seams between them.
+     * @param x the x position of the moving box
+     * @param y the y position of the moving box
+     * @param width the width of the moving box
+     * @param height the height of the moving box
+     * @param changeInX how far the moving box moves in the x direction
+     * @param changeInY how far the moving box moves in the y direction
+     * @param boxX the x position of the still box
+     * @param boxY the y position of the still box
+     * @param boxWidth the width of the still box
+     * @param boxHeight the height of the still box
+     * @param xSideOpen true if the side of the still box facing the motion in the x direction can be hit
+     * @param ySideOpen true if the side of the still box facing the motion in the y direction can be hit
+     * @param overlapCounts true if starting inside the still box counts as a hit
+     * @param handle the handle to record for the still box, or -1
+     * @return true if the hit was recorded
+     */
+    boolean against(double x, double y, double width, double height, double changeInX, double changeInY,
+                    double boxX, double boxY, double boxWidth, double boxHeight,
+                    boolean xSideOpen, boolean ySideOpen, boolean overlapCounts, int handle) {
+        // the times the moving box starts and stops overlapping the still box along each axis
+        double xEntry;
+        double xExit;
+        if (changeInX > 0) {
+            xEntry = (boxX - (x + width)) / changeInX;
+            xExit = (boxX + boxWidth - x) / changeInX;
+        } else if (changeInX < 0) {
+            xEntry = (boxX + boxWidth - x) / changeInX;
+            xExit = (boxX - (x + width)) / changeInX;
+        } else if (x + width <= boxX || x >= boxX + boxWidth) {
+            return false;
+        } else {
+            xEntry = Double.NEGATIVE_INFINITY;
+            xExit = Double.POSITIVE_INFINITY;
+        }
+        double yEntry;
+        double yExit;
+        if (changeInY > 0) {
+            yEntry = (boxY - (y + height)) / changeInY;
+            yExit = (boxY + boxHeight - y) / changeInY;
+        } else if (changeInY < 0) {
+            yEntry = (boxY + boxHeight - y) / changeInY;
+            yExit = (boxY - (y + height)) / changeInY;
+        } else if (y + height <= boxY || y >= boxY + boxHeight) {
+            return false;
+        } else {
+            yEntry = Double.NEGATIVE_INFINITY;
+            yExit = Double.POSITIVE_INFINITY;
+        }
+
+        // the boxes overlap while both axes overlap
+        double entry = Math.max(xEntry, yEntry);
+        double exit = Math.min(xExit, yExit);
+        if (entry >= exit || entry > 1 || exit <= 0) {
+            return false;
+        }
+        if (entry < 0) {
+            if (!overlapCounts || time == 0) {
+                return false;
+            }
+            record(0, 0, 0, x, y, handle);
+            return true;
+        }
+        if (entry >= time) {
+            return false;
+        }
+
+        // the axis that overlapped last is the side that was hit
+        boolean xSide = (xEntry != yEntry) ? xEntry > yEntry : xSideOpen || !ySideOpen;
+        double hitX = x + changeInX * entry;
+        double hitY = y + changeInY * entry;
+        // put the box exactly against the side it hit so rounding never leaves it slightly inside
+        if (xSide) {
+            hitX = (changeInX > 0) ? boxX - width : boxX + boxWidth;
+            record(entry, -Math.signum(changeInX), 0, hitX, hitY, handle);
+        } else {
+            hitY = (changeInY > 0) ? boxY - height : boxY + boxHeight;
+            record(entry, 0, -Math.signum(changeInY), hitX, hitY, handle);
+        }
+        return true;
+    }
+
+    private void record(double time, double normalX, double normalY, double x, double y, int handle) {
+        this.time = time;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.x = x;
+        this.y = y;
+        this.handle = handle;
+        hit = true;
+    }
+
+    /**
+     * Returns true if the box hit something.
+     * @return true if the box hit something, false otherwise
+     */
+    public boolean isHit() {
+        return hit;
+    }
+
+    /**
+     * Returns how much of the motion was done before the hit, from 0 to 1, or 1 if nothing was hit.
+     * @return how much of the motion was done before the hit.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the x direction of the side that was hit: -1 if the box hit a side facing left, 1 if it hit a side facing
+     * right, and 0 otherwise.
+     * @return the x direction of the side that was hit.
+     */
+    public double getNormalX() {
+        return normalX;
+    }
+
+    /**
+     * Returns the y direction of the side that was hit: -1 if the box hit a side facing up, 1 if it hit a side facing
+     * down, and 0 otherwise.
+     * @return the y direction of the side that was hit.
+     */
+    public double getNormalY() {
+        return normalY;
+    }
+
+    /**
+     * Returns the x position of the box when it hit something, or at the end of the motion if nothing was hit.
+     * @return the x position of the box after the sweep.
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the y position of the box when it hit something, or at the end of the motion if nothing was hit.
+     * @return the y position of the box after the sweep.
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the handle of the entity that was hit, or -1 if nothing or a tile was hit.
+     * @return the handle of the entity that was hit.
+     */
+    public int getHandle() {
+        return handle;
+    }
+}
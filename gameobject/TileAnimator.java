@@ -0,0 +1,78 @@
+package gameobject;
+
+/**
+ * Represents the animation table of a map. Tiles are grouped by their TileType, and every tile of an animated type
+ * shows the same frame, so advancing the animations only means working out one frame number per animated type from a
+ * shared tick count. The cost does not depend on how many animated tiles there are.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class TileAnimator {
+
+    private final TileType[] animated; // every type that has more than one frame
+    private final int[] frames; // the frame each type is showing, indexed by type id
+    private final boolean[] changed; // true for each type whose frame changed at the last tick, indexed by type id
+    private long ticks; // how many ticks have passed
+
+    public TileAnimator() {
+        int count = 0;
+        for (int id = 0; id < TileType.count(); id++) {
+            if (TileType.get((byte) id).isAnimated()) {
+                count++;
+            }
+        }
+        animated = new TileType[count];
+        for (int id = 0, next = 0; id < TileType.count(); id++) {
+            if (TileType.get((byte) id).isAnimated()) {
+                animated[next++] = TileType.get((byte) id);
+            }
+        }
+        frames = new int[TileType.count()];
+        changed = new boolean[TileType.count()];
+        ticks = 0;
+    }
+
+    /**
+     * Advances the shared clock by one tick and updates the frame of every animated type.
+     * @return true if any type is now showing a different frame, false otherwise
+     */
+    public boolean tick() {
+        ticks++;
+        boolean anyChanged = false;
+        for (TileType type : animated) {
+            int frame = (int) ((ticks / type.getFrameTicks()) % type.getFrameCount());
+            changed[type.getId()] = frame != frames[type.getId()];
+            if (changed[type.getId()]) {
+                frames[type.getId()] = frame;
+                anyChanged = true;
+            }
+        }
+        return anyChanged;
+    }
+
+    /**
+     * Returns the frame tiles of a type are showing right now, which is always 0 for types that are not animated.
+     * @param type the type of tile
+     * @return the frame tiles of the type are showing
+     */
+    public int getFrame(TileType type) {
+        return frames[type.getId()];
+    }
+
+    /**
+     * Returns true if tiles of a type started showing a different frame at the last tick.
+     * @param type the type of tile
+     * @return true if the type's frame changed at the last tick, false otherwise
+     */
+    public boolean hasChanged(TileType type) {
+        return changed[type.getId()];
+    }
+
+    /**
+     * Returns every type that has more than one frame.
+     * @return every animated type.
+     */
+    public TileType[] getAnimatedTypes() {
+        return animated;
+    }
+}
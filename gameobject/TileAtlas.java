@@ -0,0 +1,96 @@
+package gameobject;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Represents one image holding a picture of every frame of every TileType, side by side in order of id and then frame.
+ * The image is built once, and tiles are drawn by copying their part of it onto a canvas, so drawing a tile never has
+ * to fill or stroke a shape.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class TileAtlas {
+
+    private final WritableImage image; // the pictures of every frame of every type of tile, from left to right
+    private final int[] firstCell; // which picture the first frame of each type is, indexed by type id
+    private final int tileWidth; // the width of one tile in pixels
+    private final int tileHeight; // the height of one tile in pixels
+
+    public TileAtlas(int tileWidth, int tileHeight) {
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("tile width and height must be positive");
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        firstCell = new int[TileType.count()];
+        int cells = 0;
+        for (int id = 0; id < TileType.count(); id++) {
+            firstCell[id] = cells;
+            cells += TileType.get((byte) id).getFrameCount();
+        }
+        image = new WritableImage(tileWidth * cells, tileHeight);
+
+        // clear types are left as they are, since a new image is already clear
+        PixelWriter writer = image.getPixelWriter();
+        for (int id = 0; id < TileType.count(); id++) {
+            TileType type = TileType.get((byte) id);
+            if (type.isBlank()) {
+                continue;
+            }
+            int border = (type.getStroke() == null) ? 0 : type.getStrokeWidth();
+            for (int frame = 0; frame < type.getFrameCount(); frame++) {
+                int left = (firstCell[id] + frame) * tileWidth;
+                for (int y = 0; y < tileHeight; y++) {
+                    for (int x = 0; x < tileWidth; x++) {
+                        boolean inBorder = x < border || y < border || x >= tileWidth - border
+                                || y >= tileHeight - border;
+                        writer.setColor(left + x, y, inBorder ? type.getStroke() : type.getFill(frame));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws one frame of a tile of the given type with its top left corner at (x, y).
+     * @param gc the graphics context to draw to
+     * @param type the type of tile
+     * @param frame the frame of the type's animation
+     * @param x the x position to draw at
+     * @param y the y position to draw at
+     */
+    public void draw(GraphicsContext gc, TileType type, int frame, double x, double y) {
+        int left = (firstCell[type.getId()] + frame) * tileWidth;
+        gc.drawImage(image, left, 0, tileWidth, tileHeight, x, y, tileWidth, tileHeight);
+    }
+
+    /**
+     * Copies the picture of the first frame of a tile of the given type into another image with its top left corner at
+     * (x, y).
+     * @param writer the pixel writer of the image to copy to
+     * @param type the type of tile
+     * @param x the x position to copy to
+     * @param y the y position to copy to
+     */
+    public void copyTo(PixelWriter writer, TileType type, int x, int y) {
+        writer.setPixels(x, y, tileWidth, tileHeight, image.getPixelReader(), firstCell[type.getId()] * tileWidth, 0);
+    }
+
+    /**
+     * Returns the width of one tile in pixels.
+     * @return the width of one tile in pixels.
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Returns the height of one tile in pixels.
+     * @return the height of one tile in pixels.
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+}
@@ -0,0 +1,17 @@
+package gameobject;
+
+/**
+ * Represents something that needs to know when a tile on a Map changes type.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public interface TileListener {
+
+    /**
+     * Called after the tile at a row and column changes type.
+     * @param row the row of the tile
+     * @param col the column of the tile
+     * @param type the new type of the tile
+     */
+    void tileChanged(int row, int col, TileType type);
+}
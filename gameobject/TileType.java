@@ -0,0 +1,178 @@
+package gameobject;
+
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Represents a kind of tile. Every tile of the same kind shares one TileType, so a map only has to store one byte per
+ * tile: the id of its type. An animated type has more than one fill color and steps through them, holding each one
+ * for a number of ticks; every tile of the type shows the same frame at the same time.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public enum TileType {
+
+    OPEN(false, Color.color(1, 1, 1, 0), null, 0), // a clear tile the player can walk through
+    SOLID(true, Color.SILVER, Color.BLACK, 2), // a silver tile with a black border the player cannot walk through
+    // rippling water. Like every tile that is not '1' in a layout, the player can walk through it.
+    WATER(false, new Color[] {Color.DODGERBLUE, Color.ROYALBLUE, Color.STEELBLUE, Color.ROYALBLUE}, null, 0, 20),
+    // a flickering torch with a black border, which the player can also walk through
+    TORCH(false, new Color[] {Color.ORANGE, Color.DARKORANGE, Color.ORANGERED, Color.DARKORANGE}, Color.BLACK, 2, 6);
+
+    private static final TileType[] TYPES = values(); // every type, indexed by id
+
+    private final boolean solid; // true if the player cannot walk through tiles of this type
+    private final Color[] fills; // the color inside tiles of this type, one for each frame of its animation
+    private final int frameTicks; // how many ticks each frame of the animation is shown for
+    private final Color stroke; // the color of the border of tiles of this type, or null if they have no border
+    private final int strokeWidth; // the width of the border in pixels
+
+    TileType(boolean solid, Color fill, Color stroke, int strokeWidth) {
+        this(solid, new Color[] {fill}, stroke, strokeWidth, 1);
+    }
+
+    TileType(boolean solid, Color[] fills, Color stroke, int strokeWidth, int frameTicks) {
+        this.solid = solid;
+        this.fills = fills;
+        this.stroke = stroke;
+        this.strokeWidth = strokeWidth;
+        this.frameTicks = frameTicks;
+    }
+
+    /**
+     * Returns the type with the given id.
+     * @param id the id of a type
+     * @return the type with the given id
+     */
+    public static TileType get(byte id) {
+        return TYPES[id];
+    }
+
+    /**
+     * Returns the type of a layout char, where '1' is a solid tile, 'w' is water, 't' is a torch and anything else is
+     * an open tile.
+     * @param cell the layout char
+     * @return the type of the layout char
+     */
+    public static TileType fromCell(char cell) {
+        switch (cell) {
+            case '1':
+                return SOLID;
+            case 'w':
+                return WATER;
+            case 't':
+                return TORCH;
+            default:
+                return OPEN;
+        }
+    }
+
+    /**
+     * Returns the number of types.
+     * @return the number of types.
+     */
+    public static int count() {
+        return TYPES.length;
+    }
+
+    /**
+     * Makes a Rectangle that draws a tile of this type showing one frame of its animation. Only tiles that are on
+     * screen need one.
+     * @param x the x position of the tile
+     * @param y the y position of the tile
+     * @param width the width of the tile
+     * @param height the height of the tile
+     * @param frame the frame of the animation to show
+     * @return a Rectangle that draws the tile
+     */
+    public Rectangle createNode(double x, double y, double width, double height, int frame) {
+        Rectangle node = new Rectangle(x, y, width, height);
+        node.setFill(fills[frame]);
+        if (stroke != null) {
+            node.setStroke(stroke);
+            node.setStrokeWidth(strokeWidth);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the id of this type, which is what a map stores for each tile.
+     * @return the id of this type.
+     */
+    public byte getId() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Returns true if the player cannot walk through tiles of this type.
+     * @return true if the player cannot walk through tiles of this type, false otherwise
+     */
+    public boolean isSolid() {
+        return solid;
+    }
+
+    /**
+     * Returns true if tiles of this type are completely clear, so drawing them can be skipped.
+     * @return true if tiles of this type are completely clear, false otherwise
+     */
+    public boolean isBlank() {
+        return !isAnimated() && fills[0].getOpacity() == 0 && stroke == null;
+    }
+
+    /**
+     * Returns true if tiles of this type have more than one frame.
+     * @return true if tiles of this type are animated, false otherwise
+     */
+    public boolean isAnimated() {
+        return fills.length > 1;
+    }
+
+    /**
+     * Returns the number of frames in the animation of this type, which is 1 if it is not animated.
+     * @return the number of frames in the animation of this type.
+     */
+    public int getFrameCount() {
+        return fills.length;
+    }
+
+    /**
+     * Returns how many ticks each frame of the animation of this type is shown for.
+     * @return how many ticks each frame is shown for.
+     */
+    public int getFrameTicks() {
+        return frameTicks;
+    }
+
+    /**
+     * Returns the color inside tiles of this type in the first frame of its animation.
+     * @return the color inside tiles of this type.
+     */
+    public Color getFill() {
+        return fills[0];
+    }
+
+    /**
+     * Returns the color inside tiles of this type in one frame of its animation.
+     * @param frame the frame of the animation
+     * @return the color inside tiles of this type in that frame
+     */
+    public Color getFill(int frame) {
+        return fills[frame];
+    }
+
+    /**
+     * Returns the color of the border of tiles of this type, or null if they have no border.
+     * @return the color of the border of tiles of this type, or null
+     */
+    public Color getStroke() {
+        return stroke;
+    }
+
+    /**
+     * Returns the width of the border of tiles of this type in pixels.
+     * @return the width of the border of tiles of this type in pixels.
+     */
+    public int getStrokeWidth() {
+        return strokeWidth;
+    }
+}
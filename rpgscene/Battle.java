@@ -0,0 +1,52 @@
+package rpgscene;
+
+import rpgmain.Tickable;
+import rpgscene.battleutil.BattleManager;
+import rpgscene.battleutil.BattleState;
+import rpgscene.battleutil.Battler;
+
+/**
+ * Represents what happens in a battle, without anything that is drawn: a BattleManager, and the state changes that
+ * follow when one side wins. A BattleScene shows a Battle, and a game run without a window ticks a Battle on its own.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class Battle implements Tickable {
+
+    private BattleManager battleManager; // carries out the battle's actions
+    private SceneStateMachine stateMachine; // told when the battle is won or lost
+
+    public Battle(Battler partyLeader, Battler enemyLeader, SceneStateMachine stateMachine) {
+        this.battleManager = new BattleManager(partyLeader, enemyLeader);
+        this.stateMachine = stateMachine;
+    }
+
+    /**
+     * Invokes the BattleManager's tick method. If the player won or died, requests BATTLE_WON or PLAYER_DEAD and puts
+     * the BattleManager back to WAITING.
+     */
+    @Override
+    public void tick() {
+        battleManager.tick();
+
+        BattleState battleManagerState = battleManager.getState();
+        // if the player won, display the win screen and update the BattleManager's state
+        if (battleManagerState == BattleState.BATTLE_WON) {
+            stateMachine.request(SceneState.BATTLE_WON);
+            battleManager.setState(BattleState.WAITING);
+        }
+        // if the player dies, display the game over screen and update the BattleManager's state
+        else if (battleManagerState == BattleState.PLAYER_DEAD) {
+            stateMachine.request(SceneState.PLAYER_DEAD);
+            battleManager.setState(BattleState.WAITING);
+        }
+    }
+
+    /**
+     * Returns this Battle's BattleManager.
+     * @return this Battle's BattleManager.
+     */
+    public BattleManager getBattleManager() {
+        return battleManager;
+    }
+}
@@ -33,7 +33,8 @@ public class BattleScene extends RPGScene implements Tickable {
     private VBox playerNames; // container holding the players' names
     private VBox bottomRight; // represents the container at the bottom right that holds the instructions
     private int playerNamePointer; // an index pointing to a player name
-    private BattleManager battleManager;
+    private Battle battle; // what happens in the battle this scene shows
+    private BattleManager battleManager; // the battle's BattleManager
 
     // represents the style for all menus
     private String menuStyle = "-fx-border-color: white;\n" +
@@ -46,18 +47,19 @@ public class BattleScene extends RPGScene implements Tickable {
             "-fx-border-width: 3;\n" +
             "-fx-border-style: solid;";
 
-    public BattleScene(Group root, Canvas canvas, Paint fill, String state, Player partyLeader, Enemy enemyLeader) {
+    public BattleScene(Group root, Canvas canvas, Paint fill, SceneState state, Player partyLeader, Enemy enemyLeader) {
         super(root, canvas, fill, state);
         this.partyLeader = partyLeader;
         this.enemyLeader = enemyLeader;
         placeObjects(root);
         playerNamePointer = 0;
-        battleManager = new BattleManager(partyLeader, enemyLeader);
+        battle = new Battle(partyLeader, enemyLeader, getStateMachine());
+        battleManager = battle.getBattleManager();
         battleManager.handle(); // make a new timer to create attacks for the enemies
     }
 
     /**
-     * Creates an EventHandler that sets the state to "battle over" whenever the player presses the escape key.
+     * Creates an EventHandler that sets the state to BATTLE_OVER whenever the player presses the escape key.
      * In other words, switches back to the world map.
      */
     @Override
@@ -66,14 +68,14 @@ public class BattleScene extends RPGScene implements Tickable {
             @Override
             public void handle(KeyEvent event) {
                 if (event.getCode().getName().equals("Esc")) {
-                    setState("battle over");
+                    setState(SceneState.BATTLE_OVER);
                 }
             }
         });
     }
 
     /**
-     * Creates an EventHandler that sets the state to "battle over" whenever the player clicks the mouse.
+     * Creates an EventHandler that sets the state to BATTLE_OVER whenever the player clicks the mouse.
      * In other words, switches back to the world map.
      */
     @Override
@@ -81,30 +83,18 @@ public class BattleScene extends RPGScene implements Tickable {
         this.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent event) {
-                setState("battle over");
+                setState(SceneState.BATTLE_OVER);
             }
         });
     }
 
     /**
-     * Invokes this BattleScene's BattlerManager's tick method, updates the RPGScene's state and BattleManager's state,
+     * Invokes this BattleScene's Battle's tick method, which updates the RPGScene's state and BattleManager's state,
      * and loops through all of the names in playerNames to update the player's health.
      */
     @Override
     public void tick() {
-        battleManager.tick();
-
-        String battleManagerState = battleManager.getState();
-        // if the player won, display the win screen and update the BattleManager's state
-        if (battleManagerState.equals("battle won")) {
-            setState("battle won");
-            battleManager.setState("waiting");
-        }
-        // if the player dies, display the game over screen and update the BattleManager's state
-        else if (battleManagerState.equals("player dead")) {
-            setState("game over");
-            battleManager.setState("waiting");
-        }
+        battle.tick();
 
         // update the menu to display each player's current health
         Battler temp = partyLeader;
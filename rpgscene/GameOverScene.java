@@ -17,7 +17,7 @@ import javafx.scene.text.Text;
  */
 public class GameOverScene extends RPGScene {
 
-    public GameOverScene(Group root, Canvas canvas, Paint fill, String state) {
+    public GameOverScene(Group root, Canvas canvas, Paint fill, SceneState state) {
         super(root, canvas, fill, state);
         Text message = new Text("You lose. Thanks for playing!");
         message.setX((canvas.getWidth() / 2) - 150);
@@ -18,17 +18,17 @@ public class MenuScene extends RPGScene {
 
     private Button button; // a button to switch states
 
-    public MenuScene(Group root, Canvas canvas, Paint fill, String state) {
+    public MenuScene(Group root, Canvas canvas, Paint fill, SceneState state) {
         super(root, canvas, fill, state);
         button = new Button("Click here to play!");
         button.setLayoutX(400);
         button.setLayoutY(300);
 
-        // Creates an event handler for the play button that switches the state to "play"
+        // Creates an event handler for the play button that switches the state to PLAY
         button.setOnAction(new EventHandler<ActionEvent>() {
             @Override
             public void handle(ActionEvent event) {
-                setState("play");
+                setState(SceneState.PLAY);
             }
         });
 
@@ -0,0 +1,168 @@
+package rpgscene;
+
+import gameobject.*;
+import javafx.scene.input.KeyCode;
+import rpgmain.InputQueue;
+import rpgmain.KeyState;
+import rpgmain.Tickable;
+
+import java.util.Arrays;
+
+/**
+ * Represents what happens on the world map, without anything that is drawn: the player moving with the keys that are
+ * held, the enemies moving on their own, collisions with solid tiles and enemies, and the camera following the player.
+ * A PlayScene shows an Overworld, and a game run without a window ticks an Overworld on its own.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class Overworld implements Tickable {
+
+    private static final double ENEMY_CELL_SIZE = 128; // the size of a cell in the index of enemies
+    private static final int PLAYER_SPEED = 5; // how far the player moves every tick while a direction key is held
+    private static final int INPUT_CAPACITY = 256; // how many key events can wait for the next tick
+
+    private Player player;
+    private SceneStateMachine stateMachine; // told when the player runs into an enemy
+
+    private Map map; // represents the tile map
+    private Camera camera; // turns world coordinates into screen coordinates
+    private CollisionGrid collisionGrid; // answers which solid tiles a box overlaps
+    private EntityStore entities; // the positions and velocities of everything that moves on its own
+    private SpatialHash<Enemy> enemies; // every enemy on the map, indexed by where it is
+    private int[] enemyHandles = new int[16]; // each enemy's handle in the index of enemies, by entity id
+    private Sweep sweep = new Sweep(); // reused result of sweeping the player's box along their move
+    private InputQueue input = new InputQueue(INPUT_CAPACITY); // key events waiting for the next tick
+    private KeyState keys = new KeyState(); // which keys are held down as of this tick
+
+    public Overworld(Map map, Player player, SceneStateMachine stateMachine) {
+        this.map = map;
+        this.player = player;
+        this.stateMachine = stateMachine;
+        camera = new Camera();
+        collisionGrid = new CollisionGrid(map);
+        entities = new EntityStore();
+        enemies = new SpatialHash<>(ENEMY_CELL_SIZE);
+    }
+
+    /**
+     * Applies the key events since the last tick and sets the player's translation vector from the direction keys
+     * that are held. Then moves the player by their translation vector, sweeping their box along the whole move so
+     * that a fast move cannot pass through a wall or an enemy. The player slides along any solid tiles they hit, and if
+     * they would run into an enemy they stop against it and the state is set to BATTLE. The player's position is in
+     * screen coordinates, so it is converted to world coordinates with the camera first. Then moves the camera by how
+     * far the player actually moved.
+     */
+    @Override
+    public void tick() {
+        // turn the held direction keys into the player's translation vector. Key releases go to whichever scene is
+        // showing, so while another scene is, the player does not move and no key counts as held.
+        keys.drain(input);
+        boolean playing = stateMachine.getState() == SceneState.PLAY;
+        if (playing) {
+            player.setChangeInX(direction(KeyCode.RIGHT, KeyCode.D) - direction(KeyCode.LEFT, KeyCode.A));
+            player.setChangeInY(direction(KeyCode.DOWN, KeyCode.S) - direction(KeyCode.UP, KeyCode.W));
+        } else {
+            keys.releaseAll();
+        }
+
+        // move the enemies, then move them in the index of enemies too
+        entities.step(collisionGrid, sweep);
+        for (int i = 0; i < entities.getMovedCount(); i++) {
+            int id = entities.getMovedId(i);
+            enemies.update(enemyHandles[id], entities.getX(id), entities.getY(id), entities.getWidth(id),
+                    entities.getHeight(id));
+        }
+        entities.clearMoved();
+
+        double worldX = camera.toWorldX(player.getX());
+        double worldY = camera.toWorldY(player.getY());
+        double width = player.getWidth();
+        double height = player.getHeight();
+
+        // slide along the solid tiles in the way
+        collisionGrid.slide(worldX, worldY, width, height, player.getChangeInX(), player.getChangeInY(), sweep);
+        double moveX = sweep.getX() - worldX;
+        double moveY = sweep.getY() - worldY;
+
+        // if the player would run into an enemy on the way, then stop them against it and set the state to BATTLE to
+        // display a BattleScene. Only the enemies near the path are looked at, and only while the world map is shown,
+        // since an enemy that walks into the player during a battle cannot start another one.
+        if (playing && enemies.sweep(worldX, worldY, width, height, moveX, moveY, -1, sweep)) {
+            stateMachine.request(SceneState.BATTLE);
+            player.setCurrentOpponent(enemies.get(sweep.getHandle()));
+            moveX = sweep.getX() - worldX;
+            moveY = sweep.getY() - worldY;
+        }
+        player.setPseudoX(worldX + moveX);
+        player.setPseudoY(worldY + moveY);
+
+        // move the camera with the player, which makes the map and the enemies appear to move the opposite way
+        camera.move(moveX, moveY);
+
+        // update the map with the player's position and the direction they moved, so chunks ahead can be read early
+        map.tick(player.getPseudoX(), player.getPseudoY(), moveX, moveY);
+
+        // set the player's translation vectors to 0
+        player.setChangeInX(0);
+        player.setChangeInY(0);
+    }
+
+    /**
+     * Returns PLAYER_SPEED if either of two keys is held down, and 0 otherwise.
+     * @param key one key for the direction
+     * @param otherKey the other key for the direction
+     * @return how far the player moves in the direction this tick
+     */
+    private int direction(KeyCode key, KeyCode otherKey) {
+        return (keys.isDown(key) || keys.isDown(otherKey)) ? PLAYER_SPEED : 0;
+    }
+
+    /**
+     * Adds an enemy to the map. The enemy's position is in world coordinates, and from then on it is held in the
+     * entity store, which moves the enemy by its translation vector every tick.
+     * @param enemy the enemy to add
+     * @return the enemy's handle in the index of enemies
+     */
+    public int addEnemy(Enemy enemy) {
+        int id = enemy.attach(entities, EntityStore.COLLIDES_WITH_TILES);
+        if (id >= enemyHandles.length) {
+            enemyHandles = Arrays.copyOf(enemyHandles, Math.max(id + 1, enemyHandles.length * 2));
+        }
+        enemyHandles[id] = enemies.insert(enemy, enemy.getX(), enemy.getY(), enemy.getWidth(), enemy.getHeight());
+        return enemyHandles[id];
+    }
+
+    /**
+     * Queues a key press or release, which is applied at the next tick. If the queue is full the event is dropped and
+     * every key is released at the next tick instead.
+     * @param code the key
+     * @param pressed true if the key was pressed, false if it was released
+     */
+    public void offerKey(KeyCode code, boolean pressed) {
+        input.offer(KeyState.encode(code, pressed));
+    }
+
+    /**
+     * Releases every held key at the next tick.
+     */
+    public void releaseKeys() {
+        // if the queue is full the event is dropped, but the overflow releases every key anyway
+        input.offer(KeyState.RELEASE_ALL);
+    }
+
+    /**
+     * Returns the camera that follows the player.
+     * @return the camera that follows the player
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Returns the entity store holding the enemies.
+     * @return the entity store holding the enemies
+     */
+    public EntityStore getEntities() {
+        return entities;
+    }
+}
@@ -9,150 +9,178 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
-import javafx.scene.shape.Rectangle;
 
 /**
- * Represents the world map.
+ * Represents the world map. What happens on it is an Overworld, which this scene ticks and then shows.
  * @Author Tony Comanzo ICSI 311
  * Version 1.0
  */
 public class PlayScene extends RPGScene implements Tickable, Renderable {
 
+    private static final int PREFETCH_DISTANCE = 2; // how many chunks ahead of the player to read in the background
+    private static final double MINIMAP_WIDTH = 150; // how wide the minimap is on screen
+    private static final double MINIMAP_MARGIN = 10; // the space between the minimap and the corner of the screen
+
     private Player player;
     private Enemy enemy1;
 
     private Map map; // represents the tile map
+    private ChunkStreamer streamer; // reads the map's chunks on a background thread until this scene is shut down
+    private Overworld overworld; // moves the player and the enemies on the map
     private Group mapNode; // represents a node holding all Tiles in the map
+    private Group worldNode; // represents a node holding everything with world coordinates: the map and the enemies
+    private Camera camera; // the overworld's camera, which turns world coordinates into screen coordinates
+    private EntityStore entities; // the overworld's store of the enemies, whose sprites are moved when it is synced
+    private Renderable mapRenderer; // draws the map, either onto the canvas or as a node for every tile
+    private Minimap minimap; // a small picture of the whole map in the top right corner
+    private int playerMarker; // the id of the player's marker on the minimap
+    private int enemyMarker; // the id of the enemy's marker on the minimap
+
+    public PlayScene(Group root, Canvas canvas, Paint fill, SceneState state, Player player) {
+        this(root, canvas, fill, state, player, Map.getDefaultLayout());
+    }
+
+    public PlayScene(Group root, Canvas canvas, Paint fill, SceneState state, Player player, char[][] layout) {
+        this(root, canvas, fill, state, player, new LayoutChunkSource(layout), true);
+    }
 
-    public PlayScene(Group root, Canvas canvas, Paint fill, String state, Player player) {
+    public PlayScene(Group root, Canvas canvas, Paint fill, SceneState state, Player player, ChunkSource source,
+                     boolean drawMapOnCanvas) {
         super(root, canvas, fill, state);
         this.player = player;
         enemy1 = new Enemy(600, 450, 20, 20, 0, 0, Color.RED, "enemy1", 300, 40);
 
-        // add the player and enemy's sprites to the map
-        root.getChildren().addAll(player.getMapSprite(), enemy1.getMapSprite());
+        // the player's sprite stays in the same place on screen
+        root.getChildren().add(player.getMapSprite());
 
+        // the enemy's sprite and the map have world coordinates, and are moved together by the camera
         mapNode = new Group();
-        // add the node containing the map to the scene
-        root.getChildren().add(mapNode);
-        map = new Map(1500, 1500, mapNode);
+        worldNode = new Group(mapNode);
+        root.getChildren().add(worldNode);
+        // keep the same tile size as the default 16 x 16 layout on a 1500 x 1500 map
+        map = new Map(1500 * source.getRows() / 16, 1500 * source.getCols() / 16, mapNode, source);
+        streamer = new ChunkStreamer(source);
+        map.setStreamer(streamer, PREFETCH_DISTANCE);
+        overworld = new Overworld(map, player, getStateMachine());
+        camera = overworld.getCamera();
+        entities = overworld.getEntities();
+        addEnemy(enemy1);
 
+        // the canvas sits under everything else in root, so the map drawn on it is behind the player and the enemy
+        if (drawMapOnCanvas) {
+            mapRenderer = new CanvasMapRenderer(map, canvas, camera);
+        } else {
+            mapRenderer = map;
+        }
+
+        // the minimap goes on top of everything else in the top right corner
+        minimap = new Minimap(map, MINIMAP_WIDTH);
+        minimap.getNode().setLayoutX(canvas.getWidth() - MINIMAP_WIDTH - MINIMAP_MARGIN);
+        minimap.getNode().setLayoutY(MINIMAP_MARGIN);
+        root.getChildren().add(minimap.getNode());
+        playerMarker = minimap.addMarker(Color.BLACK);
+        enemyMarker = minimap.addMarker(Color.RED);
     }
 
     /**
-     * For every element in the map, gets the Tile at that element and compares it to the player's position.
+     * Invokes the overworld's tick method, which moves the player and the enemies, then moves the minimap's markers to
+     * where the player and the enemy are.
      */
     public void tick() {
-        Tile[][] tileMap = map.getTileMap();
-        for (int row = 0; row < tileMap.length; row++) {
-            for (int col = 0; col < tileMap[0].length; col++) {
-                Tile tile = tileMap[row][col];
-                if (tile.isSolid()) {
-                    Rectangle tileObject = tile.getTile();
-                    // if the player would move into the Tile after the map is updated, then shift the player's position
-                    // back and set their translation vector to 0
-                    if (player.getMapSprite().intersects(tileObject.getX() - player.getChangeInX(), tileObject.getY() - player.getChangeInY(), tileObject.getWidth(), tileObject.getHeight())) {
-                        if (player.getChangeInX() > 0) {
-                            player.decrementPseudoX();
-                            player.setChangeInX(0);
-                        }
-                        if (player.getChangeInX() < 0) {
-                            player.incrementPseudoX();
-                            player.setChangeInX(0);
-                        }
-                        if (player.getChangeInY() > 0) {
-                            player.decrementPseudoY();
-                            player.setChangeInY(0);
-                        }
-                        if (player.getChangeInY() < 0) {
-                            player.incrementPseudoY();
-                            player.setChangeInY(0);
-                        }
-                    }
-                }
-            }
+        overworld.tick();
+
+        // the player's sprite has screen coordinates, so its world position comes from the camera
+        minimap.moveMarker(playerMarker, camera.toWorldX(player.getX()), camera.toWorldY(player.getY()));
+        minimap.moveMarker(enemyMarker, enemy1.getX(), enemy1.getY());
+    }
+
+    /**
+     * Adds an enemy to the map and its sprite to the world node. The enemy's position is in world coordinates, and
+     * from then on it is held in the overworld's entity store, which moves the enemy by its translation vector every
+     * tick.
+     * @param enemy the enemy to add
+     * @return the enemy's handle in the index of enemies
+     */
+    public int addEnemy(Enemy enemy) {
+        worldNode.getChildren().add(0, enemy.getMapSprite());
+        return overworld.addEnemy(enemy);
+    }
+
+    /**
+     * Invokes the map renderer's render method if the map needs to be redrawn, then moves the sprites of any entities
+     * that moved, then applies the camera to the world node if the camera moved, then invokes the minimap's render
+     * method if a marker moved.
+     */
+    public void render() {
+        // the map renderer is checked first because applying the camera clears its moved flag
+        if (mapRenderer.isDirty()) {
+            mapRenderer.render();
         }
-        // if the player would move into the enemy after the map is updated, then shift the player's position back,
-        // change its translation vector to 0, and set the state to "battle" to display a BattleScene
-        if (player.getMapSprite().intersects(enemy1.getX() - player.getChangeInX(), enemy1.getY() - player.getChangeInY(), enemy1.getMapSprite().getWidth(), enemy1.getMapSprite().getHeight())) {
-            setState("battle");
-            player.setCurrentOpponent(enemy1);
-            if (player.getChangeInX() > 0) {
-                player.decrementPseudoX();
-                player.setChangeInX(0);
-            }
-            if (player.getChangeInX() < 0) {
-                player.incrementPseudoX();
-                player.setChangeInX(0);
-            }
-            if (player.getChangeInY() > 0) {
-                player.decrementPseudoY();
-                player.setChangeInY(0);
-            }
-            if (player.getChangeInY() < 0) {
-                player.incrementPseudoY();
-                player.setChangeInY(0);
-            }
+        if (entities.needsSync()) {
+            entities.sync();
         }
+        if (camera.hasMoved()) {
+            camera.apply(worldNode);
+        }
+        if (minimap.isDirty()) {
+            minimap.render();
+        }
+    }
 
-        // translate the enemy's sprite in the opposite direction of the player's translation vector
-        enemy1.setX(enemy1.getX() - player.getChangeInX());
-        enemy1.setY(enemy1.getY() - player.getChangeInY());
-
-        // update the map with the player's position and translation vectors
-        map.tick(player.getPseudoX(), player.getPseudoY(), (int) player.getChangeInX(), (int) player.getChangeInY());
+    /**
+     * Returns true if the camera moved, the map needs to be redrawn, an entity moved or a minimap marker moved.
+     * @return true if this scene needs to be redrawn, false otherwise
+     */
+    @Override
+    public boolean isDirty() {
+        return camera.hasMoved() || mapRenderer.isDirty() || entities.needsSync() || minimap.isDirty();
+    }
 
-        // set the player's translation vectors to 0
-        player.setChangeInX(0);
-        player.setChangeInY(0);
+    /**
+     * Stops the background thread that reads the map's chunks. Called when this scene is thrown away; if the scene is
+     * ticked afterwards, the map reads the chunks it needs right away instead.
+     */
+    public void shutdown() {
+        map.setStreamer(null, 0);
+        streamer.shutdown();
     }
 
     /**
-     * Invokes the map's render method.
+     * Releases every held key at the next tick. Called when the window loses focus, since key releases then go to
+     * another window and never reach this scene.
      */
-    public void render() {
-        map.render();
+    public void releaseKeys() {
+        overworld.releaseKeys();
     }
 
     /**
-     * Creates an EventHandler that updates the player's position if the user presses a certain key.
+     * Creates EventHandlers that put every key press and release into the overworld's input queue. The player is moved
+     * by the next tick, for as long as the key is held, so movement does not depend on how often the operating system
+     * repeats a held key.
      */
     public void createKeyHandler() {
         this.setOnKeyPressed(new EventHandler<KeyEvent>() {
             @Override
             public void handle(KeyEvent event) {
-                // Move every tile right if the key pressed is Left or A
-                if (event.getCode().getName().equals("Left") || event.getCode().getName().equals("A")) {
-                    player.decrementPseudoX();
-                    player.setChangeInX(-20); // set translation in x direction to -20
-                }
-                // Move every tile left if the key pressed is Right or D
-                else if (event.getCode().getName().equals("Right") || event.getCode().getName().equals("D")) {
-                    player.incrementPseudoX();
-                    player.setChangeInX(20); // set translation in x direction to 20
-                }
-                // Move every tile Up if the key pressed is Down or S
-                else if (event.getCode().getName().equals("Down") || event.getCode().getName().equals("S")) {
-                    player.incrementPseudoY();
-                    player.setChangeInY(20); // set translation in y direction to 20
-                }
-                // Move every tile down if the key pressed is Up or W
-                else if (event.getCode().getName().equals("Up") || event.getCode().getName().equals("W")) {
-                    player.decrementPseudoY();
-                    player.setChangeInY(-20); // set translation in y direction to -20
-                }
+                overworld.offerKey(event.getCode(), true);
+            }
+        });
+        this.setOnKeyReleased(new EventHandler<KeyEvent>() {
+            @Override
+            public void handle(KeyEvent event) {
+                overworld.offerKey(event.getCode(), false);
             }
         });
     }
 
     /**
-     * Creates an EventHandler that sets the state to "menu" whenever the player clicks their mouse.
+     * Creates an EventHandler that sets the state to MENU whenever the player clicks their mouse.
      */
     public void createMouseHandler() {
         this.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent event) {
-                setState("menu");
+                setState(SceneState.MENU);
             }
         });
     }
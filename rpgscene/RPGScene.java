@@ -14,8 +14,8 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public abstract class RPGScene extends Scene {
 
-    // represents the state of all scenes in this application
-    private static String state;
+    // decides the state of all scenes in this application
+    private static final SceneStateMachine stateMachine = new SceneStateMachine(SceneState.MENU);
 
     // represents the root node that holds all visual objects in this Scene but not the Scene itself
     private Group root;
@@ -26,11 +26,11 @@ public abstract class RPGScene extends Scene {
     // a unique identifier for this scene
     private String id;
 
-    public RPGScene(Group root, Canvas canvas, Paint fill, String state) {
+    public RPGScene(Group root, Canvas canvas, Paint fill, SceneState state) {
         super(root, fill);
         createKeyHandler();
         createMouseHandler();
-        this.state = state;
+        setState(state);
 
         this.root = root;
         this.canvas = canvas;
@@ -51,16 +51,24 @@ public abstract class RPGScene extends Scene {
      * Returns the state of all RPGScenes.
      * @return the state of all RPGScenes.
      */
-    public String getState() {
-        return state;
+    public SceneState getState() {
+        return stateMachine.getState();
     }
 
     /**
-     * Sets the state of all RPGScenes.
+     * Requests a new state for all RPGScenes. The state changes the next time the state machine is updated.
      * @param state the state of all RPGScenes.
      */
-    public void setState(String state) {
-        this.state = state;
+    public void setState(SceneState state) {
+        stateMachine.request(state);
+    }
+
+    /**
+     * Returns the state machine shared by all RPGScenes.
+     * @return the state machine shared by all RPGScenes.
+     */
+    public static SceneStateMachine getStateMachine() {
+        return stateMachine;
     }
 
     /**
@@ -26,8 +26,6 @@ public class SceneManager implements Tickable, Renderable {
 
     private Player player;
 
-    private String state; // represents the state of all scenes
-
     private String id; // a unique identifier for this SceneManager
 
     private SceneManager() {
@@ -38,6 +36,7 @@ public class SceneManager implements Tickable, Renderable {
         makeGameOverScene();
 
         currentScene = menuScene;
+        makeTransitions();
 
         id = String.valueOf(System.currentTimeMillis() * ThreadLocalRandom.current().nextInt(1, 1000 + 1));
     }
@@ -58,68 +57,56 @@ public class SceneManager implements Tickable, Renderable {
     }
 
     /**
-     * Invokes a helper function and then updates the playScene.
+     * Updates the state machine, switching scenes if a new state was requested. The playScene is ticked separately by
+     * the TickHandler.
      */
     @Override
     public void tick() {
-        updateCurrentScene();
-        playScene.tick();
+        RPGScene.getStateMachine().update();
     }
 
     /**
-     * Invokes the playScene's render method.
+     * Invokes the playScene's render method if the playScene has changed.
      */
     @Override
     public void render() {
-        playScene.render();
+        if (playScene.isDirty()) {
+            playScene.render();
+        }
+    }
+
+    /**
+     * Returns true if the playScene needs to be redrawn.
+     * @return true if the playScene needs to be redrawn, false otherwise
+     */
+    @Override
+    public boolean isDirty() {
+        return playScene.isDirty();
     }
 
     /**
-     * Gets the current state of the scenes from the current scene and then updates the current scene accordingly.
+     * Registers the enter and exit hooks that switch the current scene when the state changes.
      */
-    private void updateCurrentScene() {
-        state = currentScene.getState();
+    private void makeTransitions() {
+        SceneStateMachine stateMachine = RPGScene.getStateMachine();
         // if the state is menu, switch to menuScene
-        if (state.equals("menu")) {
-            currentScene = menuScene;
-        }
+        stateMachine.onEnter(SceneState.MENU, () -> currentScene = menuScene);
         // if the state is play, switch to playScene
-        else if (state.equals("play")) {
-            currentScene = playScene;
-        }
-        // if the state is battle, if battleScene is null, make a new BattleScene and switch to it
-        else if (state.equals("battle")) {
+        stateMachine.onEnter(SceneState.PLAY, () -> currentScene = playScene);
+        // if the state is battle, make a new BattleScene if there isn't one and switch to it
+        stateMachine.onEnter(SceneState.BATTLE, () -> {
             if (battleScene == null) {
                 battleScene = makeBattleScene();
             }
             currentScene = battleScene;
-        }
-        // if the state if battle over, set battleScene to null and switch the state to play
-        else if (state.equals("battle over")) {
-            currentScene = playScene;
-            battleScene = null;
-            currentScene.setState("play");
-        }
-        // if the state is battle won, set the battleScene to null and switch the state to win
-        else if (state.equals("battle won")) {
-            currentScene = playScene;
-            battleScene = null;
-            currentScene.setState("win");
-        }
-        // if the state is win, switch the scene to winScene
-        else if (state.equals("win")) {
-            currentScene = winScene;
-        }
-        // if the state is player dead, set the battleScene to null and switch the state to game over
-        else if (state.equals("player dead")) {
-            currentScene = playScene;
-            battleScene = null;
-            currentScene.setState("game over");
-        }
-        // if the state is game over, switch the scene to gameOverScene
-        else if (state.equals("game over")) {
-            currentScene = gameOverScene;
-        }
+        });
+        // when the battle ends in any way, forget the BattleScene. The state machine itself moves on from the states
+        // that end a battle.
+        stateMachine.onExit(SceneState.BATTLE, () -> battleScene = null);
+        // if the user won the battle, show the win screen
+        stateMachine.onEnter(SceneState.WIN, () -> currentScene = winScene);
+        // if the user lost the battle, show the game over screen
+        stateMachine.onEnter(SceneState.GAME_OVER, () -> currentScene = gameOverScene);
     }
 
     /**
@@ -177,7 +164,7 @@ public class SceneManager implements Tickable, Renderable {
         Canvas canvas = new Canvas(1000, 750);
         Group root = new Group(canvas);
         // make a new scene 1000 x 750 that that has a red background and set the state to menu
-        menuScene = new MenuScene(root, canvas, Color.RED, "menu");
+        menuScene = new MenuScene(root, canvas, Color.RED, SceneState.MENU);
     }
 
     /**
@@ -196,7 +183,7 @@ public class SceneManager implements Tickable, Renderable {
 
         // make a new scene 1000 x 750 that has a green background with a reference to the player leader and set the
         // state to menu
-        playScene = new PlayScene(root, canvas, Color.GREEN, "menu", player);
+        playScene = new PlayScene(root, canvas, Color.GREEN, SceneState.MENU, player);
     }
 
     /**
@@ -208,7 +195,7 @@ public class SceneManager implements Tickable, Renderable {
         Group root = new Group(canvas);
         // make a new scene 1000 x 750 that has a grey background, a reference to the player leader and the enemy
         // leader, and set the state to battle
-        battleScene = new BattleScene(root, canvas, Color.GREY, "battle", player, player.getCurrentOpponent());
+        battleScene = new BattleScene(root, canvas, Color.GREY, SceneState.BATTLE, player, player.getCurrentOpponent());
         return battleScene;
     }
 
@@ -219,7 +206,7 @@ public class SceneManager implements Tickable, Renderable {
         Canvas canvas = new Canvas(1000, 750);
         Group root = new Group(canvas);
         // make a new scene 1000 x 750 that has a gold background and set the state to menu
-        winScene = new WinScene(root, canvas, Color.GOLD, "menu");
+        winScene = new WinScene(root, canvas, Color.GOLD, SceneState.MENU);
     }
 
     /**
@@ -229,7 +216,7 @@ public class SceneManager implements Tickable, Renderable {
         Canvas canvas = new Canvas(1000, 750);
         Group root = new Group(canvas);
         // make a new scene 1000 x 750 that has a red background and set the state to menu
-        gameOverScene = new GameOverScene(root, canvas, Color.RED, "menu");
+        gameOverScene = new GameOverScene(root, canvas, Color.RED, SceneState.MENU);
     }
 
     /**
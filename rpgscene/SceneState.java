@@ -0,0 +1,32 @@
+package rpgscene;
+
+/**
+ * Represents the state of all scenes in this application. Some states are passed through on the way to another state,
+ * for example BATTLE_OVER always moves on to PLAY. A state is static if its scene does not animate.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public enum SceneState {
+    MENU(true), // the main menu is shown
+    PLAY(false), // the world map is shown
+    BATTLE(false), // a battle is shown
+    BATTLE_OVER(false), // the user left a battle; moves on to PLAY
+    BATTLE_WON(false), // the user won a battle; moves on to WIN
+    WIN(true), // the win screen is shown
+    PLAYER_DEAD(false), // the user lost a battle; moves on to GAME_OVER
+    GAME_OVER(true); // the game over screen is shown
+
+    private final boolean staticScene; // true if this state's scene does not animate
+
+    SceneState(boolean staticScene) {
+        this.staticScene = staticScene;
+    }
+
+    /**
+     * Returns true if this state's scene does not animate, so the game can run at a low rate.
+     * @return true if this state's scene does not animate, false otherwise
+     */
+    public boolean isStatic() {
+        return staticScene;
+    }
+}
@@ -0,0 +1,177 @@
+package rpgscene;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents the state machine that decides which scene is shown. Scenes request a new state at any time, and the
+ * request is carried out the next time update is called. Only transitions listed in the transition table are allowed,
+ * and a request for any other transition is turned down when it is made. Hooks registered for a state run when that
+ * state is entered or exited, so nothing is done on updates where the state stays the same.
+ * @Author Tony Comanzo ICSI 311
+ * Version 1.0
+ */
+public class SceneStateMachine {
+
+    private static final int MAX_TRANSITIONS_PER_UPDATE = 16; // guards against states that request each other forever
+
+    private SceneState state; // the current state
+    private SceneState requested; // the state to move to on the next update, or null if none was requested
+
+    private EnumMap<SceneState, EnumSet<SceneState>> transitions; // for each state, the states it can move to
+    private EnumMap<SceneState, List<Runnable>> enterHooks; // for each state, what to do when it is entered
+    private EnumMap<SceneState, List<Runnable>> exitHooks; // for each state, what to do when it is exited
+    private List<BiConsumer<SceneState, SceneState>> listeners; // called with the old and new state after a transition
+    // called with the state before and after an update that changed the state, once every transition is done
+    private List<BiConsumer<SceneState, SceneState>> settleListeners;
+
+    public SceneStateMachine(SceneState initial) {
+        state = initial;
+        requested = null;
+        transitions = new EnumMap<>(SceneState.class);
+        enterHooks = new EnumMap<>(SceneState.class);
+        exitHooks = new EnumMap<>(SceneState.class);
+        for (SceneState s : SceneState.values()) {
+            transitions.put(s, EnumSet.noneOf(SceneState.class));
+            enterHooks.put(s, new ArrayList<>());
+            exitHooks.put(s, new ArrayList<>());
+        }
+        listeners = new ArrayList<>();
+        settleListeners = new ArrayList<>();
+        makeTransitionTable();
+        makePassThroughStates();
+    }
+
+    /**
+     * Fills in the transition table.
+     */
+    private void makeTransitionTable() {
+        allow(SceneState.MENU, SceneState.PLAY);
+        allow(SceneState.PLAY, SceneState.MENU, SceneState.BATTLE);
+        allow(SceneState.BATTLE, SceneState.BATTLE_OVER, SceneState.BATTLE_WON, SceneState.PLAYER_DEAD);
+        allow(SceneState.BATTLE_OVER, SceneState.PLAY);
+        allow(SceneState.BATTLE_WON, SceneState.WIN);
+        allow(SceneState.PLAYER_DEAD, SceneState.GAME_OVER);
+    }
+
+    /**
+     * Registers the enter hooks of the states that are only passed through: leaving a battle goes back to the world
+     * map, winning one shows the win screen and losing one shows the game over screen.
+     */
+    private void makePassThroughStates() {
+        onEnter(SceneState.BATTLE_OVER, () -> request(SceneState.PLAY));
+        onEnter(SceneState.BATTLE_WON, () -> request(SceneState.WIN));
+        onEnter(SceneState.PLAYER_DEAD, () -> request(SceneState.GAME_OVER));
+    }
+
+    /**
+     * Allows moving from one state to each of the given states.
+     * @param from the state to move from
+     * @param to the states that can be moved to
+     */
+    private void allow(SceneState from, SceneState... to) {
+        for (SceneState s : to) {
+            transitions.get(from).add(s);
+        }
+    }
+
+    /**
+     * Requests a move to a new state on the next update. A later request made before the update replaces this one.
+     * Requesting the current state does nothing when the update comes.
+     * @param next the state to move to
+     * @throws IllegalStateException if moving from the current state to next is not in the transition table
+     */
+    public void request(SceneState next) {
+        if (next != state && !transitions.get(state).contains(next)) {
+            throw new IllegalStateException("cannot move from " + state + " to " + next);
+        }
+        requested = next;
+    }
+
+    /**
+     * Carries out the requested transition, if there is one. Runs the old state's exit hooks, then the new state's
+     * enter hooks, then the listeners. If a hook requests another state, that transition is carried out too. Once no
+     * more transitions are requested, calls the settle listeners if the state changed. Every request was checked when
+     * it was made, so an update never fails part way through.
+     */
+    public void update() {
+        SceneState start = state;
+        for (int i = 0; requested != null && i < MAX_TRANSITIONS_PER_UPDATE; i++) {
+            SceneState next = requested;
+            requested = null;
+            if (next == state) {
+                continue;
+            }
+
+            SceneState previous = state;
+            run(exitHooks.get(previous));
+            state = next;
+            run(enterHooks.get(next));
+            for (BiConsumer<SceneState, SceneState> listener : listeners) {
+                listener.accept(previous, next);
+            }
+        }
+        if (state != start) {
+            for (BiConsumer<SceneState, SceneState> listener : settleListeners) {
+                listener.accept(start, state);
+            }
+        }
+    }
+
+    /**
+     * Runs every hook in a list.
+     * @param hooks the hooks to run
+     */
+    private void run(List<Runnable> hooks) {
+        for (Runnable hook : hooks) {
+            hook.run();
+        }
+    }
+
+    /**
+     * Adds a hook that runs whenever the given state is entered.
+     * @param state the state
+     * @param hook what to do when the state is entered
+     */
+    public void onEnter(SceneState state, Runnable hook) {
+        enterHooks.get(state).add(hook);
+    }
+
+    /**
+     * Adds a hook that runs whenever the given state is exited.
+     * @param state the state
+     * @param hook what to do when the state is exited
+     */
+    public void onExit(SceneState state, Runnable hook) {
+        exitHooks.get(state).add(hook);
+    }
+
+    /**
+     * Adds a listener that is called with the old and new state after every transition.
+     * @param listener the listener
+     */
+    public void addListener(BiConsumer<SceneState, SceneState> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Adds a listener that is called once at the end of every update that changed the state, with the state before the
+     * update and the state after it. States passed through on the way, such as one whose enter hook requests the next
+     * state right away, are not seen.
+     * @param listener the listener
+     */
+    public void addSettleListener(BiConsumer<SceneState, SceneState> listener) {
+        settleListeners.add(listener);
+    }
+
+    /**
+     * Returns the current state.
+     * @return the current state.
+     */
+    public SceneState getState() {
+        return state;
+    }
+}
@@ -17,7 +17,7 @@ import javafx.scene.text.Text;
  */
 public class WinScene extends RPGScene {
 
-    public WinScene(Group root, Canvas canvas, Paint fill, String state) {
+    public WinScene(Group root, Canvas canvas, Paint fill, SceneState state) {
         super(root, canvas, fill, state);
         Text message = new Text("You win! Thanks for playing!");
         message.setX((canvas.getWidth() / 2) - 150);
@@ -25,13 +25,13 @@ public class BattleManager implements Handler, Tickable {
     // a queue of BattleActions
     private LinkedList<BattleAction> actions;
     // the state of this BattleManager
-    private String state;
+    private BattleState state;
     // an index representing an enemy's id in enemyIds
     private int enemyPointer;
 
     public BattleManager(Battler playerLeader, Battler enemyLeader) {
         actions = new LinkedList<>();
-        state = "waiting";
+        state = BattleState.WAITING;
         playerMap = new LinkedHashMap<>();
         playerIds = new ArrayList<>();
         // populate the player map and id list
@@ -79,15 +79,14 @@ public class BattleManager implements Handler, Tickable {
      * Removes an object from the object's hash table.
      * @param key key of which value is to be removed
      */
-    @Override
     public void removeObject(String key) {
         playerMap.remove(key);
     }
 
     /**
      * Gets the head of the queue of BattleActions, actions, and executes that BattleAction if not null. If the
-     * defender's health is 0 and it's an instance of class Enemy, then changes the state to "battle won". If the
-     * defender is a an instance of class Player, then changes the state to "player dead".
+     * defender's health is 0 and it's an instance of class Enemy, then changes the state to BATTLE_WON. If the
+     * defender is a an instance of class Player, then changes the state to PLAYER_DEAD.
      */
     @Override
     public void tick() {
@@ -102,7 +101,7 @@ public class BattleManager implements Handler, Tickable {
         for (int i = 0; i < playerIds.size(); i++) {
             String id = playerIds.get(i);
             if (playerMap.get(id).isDead()) {
-                setState("player dead");
+                setState(BattleState.PLAYER_DEAD);
                 playerMap.remove(id);
                 playerIds.remove(i);
             }
@@ -112,7 +111,7 @@ public class BattleManager implements Handler, Tickable {
         for (int i = 0; i < enemyIds.size(); i++) {
             String id = enemyIds.get(i);
             if (enemyMap.get(id).isDead()) {
-                setState("battle won");
+                setState(BattleState.BATTLE_WON);
                 enemyMap.remove(id);
                 enemyIds.remove(i);
             }
@@ -131,7 +130,7 @@ public class BattleManager implements Handler, Tickable {
      * Sets the state of this BattleManager.
      * @param state the state of this BattleManager.
      */
-    public void setState(String state) {
+    public void setState(BattleState state) {
         this.state = state;
     }
 
@@ -139,7 +138,7 @@ public class BattleManager implements Handler, Tickable {
      * Returns the state of this BattleManager.
      * @return the state of this BattleManager.
      */
-    public String getState() {
+    public BattleState getState() {
         return state;
     }
 
@@ -0,0 +1,12 @@
+package rpgscene.battleutil;
+
+/**
+ * Represents the state of a BattleManager.
+ * @Author Tony Comanzo
+ * Version 1.0
+ */
+public enum BattleState {
+    WAITING, // the battle is still going
+    BATTLE_WON, // every enemy is dead
+    PLAYER_DEAD // a player died
+}
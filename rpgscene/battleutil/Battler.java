@@ -16,7 +16,7 @@ public abstract class Battler extends PartyMember {
     private int attackPoints;
     // represents the state of this battler
     private String state;
-    // represents how this battler should be drawn in battle
+    // represents how this battler should be drawn in battle, or null until it is asked for
     private Rectangle battleSprite;
 
     public Battler(double x, double y, double width, double height, double changeInX, double changeInY, Color color, String name, int health, int attackPoints) {
@@ -28,8 +28,6 @@ public abstract class Battler extends PartyMember {
         this.health = health;
         this.attackPoints = attackPoints;
         state = "alive";
-        battleSprite = new Rectangle(x, y, width, height);
-        battleSprite.setFill(color);
     }
 
     /**
@@ -100,10 +98,14 @@ public abstract class Battler extends PartyMember {
     }
 
     /**
-     * Returns this Battler's battle sprite.
+     * Returns this Battler's battle sprite, making it the first time. Battles that are never shown never make it.
      * @return this Battler's battle sprite.
      */
     public Rectangle getBattleSprite() {
+        if (battleSprite == null) {
+            battleSprite = new Rectangle(getX(), getY(), getWidth(), getHeight());
+            battleSprite.setFill(getColor());
+        }
         return battleSprite;
     }
 